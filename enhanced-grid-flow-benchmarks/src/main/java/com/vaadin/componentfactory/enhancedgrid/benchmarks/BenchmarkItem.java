@@ -0,0 +1,64 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks;
+
+import java.time.LocalDate;
+
+/**
+ * Bean shown in the benchmarked grids, with one property for each filter type.
+ */
+public class BenchmarkItem {
+    private final int id;
+    private final String name;
+    private final Category category;
+    private final LocalDate date;
+    private final boolean active;
+
+    public BenchmarkItem(int id, String name, Category category, LocalDate date,
+                         boolean active) {
+        this.id = id;
+        this.name = name;
+        this.category = category;
+        this.date = date;
+        this.active = active;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return id == ((BenchmarkItem) o).id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,75 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+
+/**
+ * Generates the synthetic data sets of the benchmarks. The generation is
+ * seeded, so every run works on the same data.
+ */
+public final class BenchmarkItems {
+
+    private static final String[] WORDS = { "alpha", "Bravo", "charlie", "Delta",
+            "echo", "Foxtrot", "golf", "Hotel", "india", "Juliett" };
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2000, 1, 1);
+
+    private BenchmarkItems() {
+    }
+
+    public static List<BenchmarkItem> create(int size) {
+        Random random = new Random(42);
+        List<BenchmarkItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(create(i, random));
+        }
+        return items;
+    }
+
+    /**
+     * Creates a tree in which every item but the leaves has the given number of
+     * children.
+     *
+     * @param depth
+     *            the number of levels below the root items
+     * @param branching
+     *            the number of children of each item, and of root items
+     * @return the tree
+     */
+    public static TreeData<BenchmarkItem> createTree(int depth, int branching) {
+        Random random = new Random(42);
+        TreeData<BenchmarkItem> treeData = new TreeData<>();
+        List<BenchmarkItem> level = new ArrayList<>();
+        int id = 0;
+        for (int i = 0; i < branching; i++) {
+            BenchmarkItem item = create(id++, random);
+            treeData.addItem(null, item);
+            level.add(item);
+        }
+        for (int d = 0; d < depth; d++) {
+            List<BenchmarkItem> nextLevel = new ArrayList<>(level.size() * branching);
+            for (BenchmarkItem parent : level) {
+                for (int i = 0; i < branching; i++) {
+                    BenchmarkItem item = create(id++, random);
+                    treeData.addItem(parent, item);
+                    nextLevel.add(item);
+                }
+            }
+            level = nextLevel;
+        }
+        return treeData;
+    }
+
+    private static BenchmarkItem create(int id, Random random) {
+        String name = WORDS[random.nextInt(WORDS.length)] + " "
+                + WORDS[random.nextInt(WORDS.length)] + " " + id;
+        Category category = Category.values()[random
+                .nextInt(Category.values().length)];
+        LocalDate date = FIRST_DATE.plusDays(random.nextInt(8000));
+        return new BenchmarkItem(id, name, category, date, random.nextBoolean());
+    }
+}
@@ -0,0 +1,5 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks;
+
+public enum Category {
+    HARDWARE, SOFTWARE, SERVICES, SUPPORT, TRAINING, CONSULTING, LICENSES, OTHER
+}
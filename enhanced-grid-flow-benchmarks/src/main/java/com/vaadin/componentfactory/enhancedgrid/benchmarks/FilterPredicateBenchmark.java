@@ -0,0 +1,139 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.component.grid.filtering.BooleanFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.EnumFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.GenericFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.LocalDateFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.ZonedDateTimeFieldFilterDto;
+
+/**
+ * Measures the predicates of each filter DTO, built once per invocation and
+ * tested on every value of a column, like {@code EnhancedGrid.applyFrontendFilter}
+ * does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterPredicateBenchmark {
+
+    @Param({ "100000" })
+    private int size;
+
+    private String[] names;
+    private Integer[] ids;
+    private Category[] categories;
+    private LocalDate[] dates;
+    private ZonedDateTime[] dateTimes;
+    private Boolean[] actives;
+
+    @Setup
+    public void setUp() {
+        List<BenchmarkItem> items = BenchmarkItems.create(size);
+        names = new String[size];
+        ids = new Integer[size];
+        categories = new Category[size];
+        dates = new LocalDate[size];
+        dateTimes = new ZonedDateTime[size];
+        actives = new Boolean[size];
+        for (int i = 0; i < size; i++) {
+            BenchmarkItem item = items.get(i);
+            names[i] = item.getName();
+            ids[i] = item.getId();
+            categories[i] = item.getCategory();
+            dates[i] = item.getDate();
+            dateTimes[i] = item.getDate().atStartOfDay(ZoneOffset.UTC);
+            actives[i] = item.isActive();
+        }
+    }
+
+    @Benchmark
+    public int textContains() {
+        return count(new GenericFieldFilterDto<BenchmarkItem, String>("delta")
+                .getFilterPredicate(), names);
+    }
+
+    @Benchmark
+    public int textContainsCaseSensitive() {
+        return count(new GenericFieldFilterDto<BenchmarkItem, String>("Delta")
+                .caseSensitive(true).getFilterPredicate(), names);
+    }
+
+    @Benchmark
+    public int textWholeField() {
+        return count(new GenericFieldFilterDto<BenchmarkItem, String>("delta echo 7")
+                .wholeField(true).getFilterPredicate(), names);
+    }
+
+    @Benchmark
+    public int textInverted() {
+        return count(new GenericFieldFilterDto<BenchmarkItem, String>("delta")
+                .invertResult(true).getFilterPredicate(), names);
+    }
+
+    @Benchmark
+    public int number() {
+        return count(new GenericFieldFilterDto<BenchmarkItem, Integer>("77")
+                .getFilterPredicate(), ids);
+    }
+
+    @Benchmark
+    public int enumeration() {
+        return count(new EnumFieldFilterDto<BenchmarkItem, Category>(
+                EnumSet.of(Category.HARDWARE, Category.SUPPORT, Category.OTHER))
+                .getFilterPredicate(), categories);
+    }
+
+    @Benchmark
+    public int localDate() {
+        return count(new LocalDateFieldFilterDto<BenchmarkItem>(
+                LocalDate.of(2005, 1, 1), LocalDate.of(2010, 12, 31))
+                .getFilterPredicate(), dates);
+    }
+
+    @Benchmark
+    public int zonedDateTime() {
+        return count(new ZonedDateTimeFieldFilterDto<BenchmarkItem>(
+                ZonedDateTime.of(2005, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+                ZonedDateTime.of(2010, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC))
+                .getFilterPredicate(), dateTimes);
+    }
+
+    @Benchmark
+    public int bool() {
+        return count(new BooleanFieldFilterDto<BenchmarkItem>(Boolean.TRUE)
+                .getFilterPredicate(), actives);
+    }
+
+    private static <V> int count(Predicate<V> predicate, V[] values) {
+        int count = 0;
+        for (V value : values) {
+            if (predicate.test(value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
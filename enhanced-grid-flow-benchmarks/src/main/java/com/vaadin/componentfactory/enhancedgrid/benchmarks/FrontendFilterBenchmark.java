@@ -0,0 +1,101 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.flow.component.grid.filtering.BooleanFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.BooleanFilterField;
+import com.vaadin.flow.component.grid.filtering.EnumFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.EnumFilterField;
+import com.vaadin.flow.component.grid.filtering.GenericFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.LocalDateFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.LocalDateFilterField;
+import com.vaadin.flow.component.grid.filtering.TextFilterField;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+
+/**
+ * Measures {@link EnhancedGrid#applyFrontendFilter()} on a grid backed by a
+ * large {@link ListDataProvider}, including the evaluation of the resulting
+ * filter on all the items, as done when the grid fetches the new size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrontendFilterBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    private int size;
+
+    /**
+     * The filters set: "text", "enum", "date", "boolean" for a single column,
+     * "all" for all of them.
+     */
+    @Param({ "text", "enum", "date", "boolean", "all" })
+    private String filters;
+
+    private EnhancedGrid<BenchmarkItem> grid;
+
+    private ListDataProvider<BenchmarkItem> dataProvider;
+
+    @Setup
+    public void setUp() {
+        grid = new EnhancedGrid<>();
+        dataProvider = new ListDataProvider<>(BenchmarkItems.create(size));
+        grid.setDataProvider(dataProvider);
+
+        boolean all = "all".equals(filters);
+
+        TextFilterField<BenchmarkItem> nameFilter = new TextFilterField<>();
+        if (all || "text".equals(filters)) {
+            nameFilter.setValue(new GenericFieldFilterDto<>("delta"));
+        }
+        grid.addColumn(BenchmarkItem::getName).setHeader("Name", nameFilter);
+
+        EnumFilterField<BenchmarkItem, Category> categoryFilter = new EnumFilterField<>(
+                (SingularAttribute<BenchmarkItem, Category>) null, Category.values());
+        if (all || "enum".equals(filters)) {
+            categoryFilter.setValue(new EnumFieldFilterDto<>(
+                    EnumSet.of(Category.HARDWARE, Category.SUPPORT, Category.OTHER)));
+        }
+        grid.addColumn(BenchmarkItem::getCategory).setHeader("Category", categoryFilter);
+
+        LocalDateFilterField<BenchmarkItem> dateFilter = new LocalDateFilterField<>();
+        if (all || "date".equals(filters)) {
+            dateFilter.setValue(new LocalDateFieldFilterDto<>(
+                    LocalDate.of(2005, 1, 1), LocalDate.of(2010, 12, 31)));
+        }
+        grid.addColumn(BenchmarkItem::getDate).setHeader("Date", dateFilter);
+
+        BooleanFilterField<BenchmarkItem> activeFilter = new BooleanFilterField<>(null);
+        if (all || "boolean".equals(filters)) {
+            activeFilter.setValue(new BooleanFieldFilterDto<>(Boolean.TRUE));
+        }
+        grid.addColumn(BenchmarkItem::isActive).setHeader("Active", activeFilter);
+    }
+
+    @Benchmark
+    public int applyFrontendFilter() {
+        grid.applyFrontendFilter();
+        return dataProvider.size(new Query<>());
+    }
+}
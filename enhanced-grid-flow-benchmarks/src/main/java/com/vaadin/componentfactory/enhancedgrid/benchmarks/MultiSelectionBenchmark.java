@@ -0,0 +1,97 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.flow.component.grid.CustomAbstractGridMultiSelectionModel;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.data.selection.SelectionEvent;
+
+/**
+ * Measures single item operations of {@link CustomAbstractGridMultiSelectionModel}
+ * while a large number of items is already selected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiSelectionBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    private int selectedCount;
+
+    private CustomAbstractGridMultiSelectionModel<BenchmarkItem> selectionModel;
+
+    private BenchmarkItem selectedItem;
+
+    private BenchmarkItem unselectedItem;
+
+    @Setup
+    public void setUp() {
+        List<BenchmarkItem> items = BenchmarkItems.create(selectedCount + 1);
+        EnhancedGrid<BenchmarkItem> grid = new EnhancedGrid<>();
+        grid.setItems(items);
+        selectionModel = new CustomAbstractGridMultiSelectionModel<BenchmarkItem>(grid) {
+            @Override
+            protected void fireSelectionEvent(
+                    SelectionEvent<Grid<BenchmarkItem>, BenchmarkItem> event) {
+                // no listeners to notify
+            }
+        };
+
+        selectionModel.updateSelection(
+                new LinkedHashSet<>(items.subList(0, selectedCount)),
+                Collections.emptySet());
+        selectedItem = items.get(selectedCount / 2);
+        unselectedItem = items.get(selectedCount);
+    }
+
+    @Benchmark
+    public boolean isSelected() {
+        return selectionModel.isSelected(selectedItem);
+    }
+
+    @Benchmark
+    public boolean isNotSelected() {
+        return selectionModel.isSelected(unselectedItem);
+    }
+
+    /**
+     * Selects an item and deselects it again, so the selection keeps its size
+     * between invocations.
+     */
+    @Benchmark
+    public int selectAndDeselect() {
+        selectionModel.select(unselectedItem);
+        selectionModel.deselect(unselectedItem);
+        return selectionModel.getSelectedItems().size();
+    }
+
+    /**
+     * Deselects an item and selects it again, so the selection keeps its size
+     * between invocations.
+     */
+    @Benchmark
+    public int deselectAndSelect() {
+        selectionModel.deselect(selectedItem);
+        selectionModel.select(selectedItem);
+        return selectionModel.getSelectedItems().size();
+    }
+}
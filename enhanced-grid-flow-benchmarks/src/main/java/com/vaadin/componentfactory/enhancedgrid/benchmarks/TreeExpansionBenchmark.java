@@ -0,0 +1,73 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.componentfactory.enhancedtreegrid.EnhancedTreeGrid;
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+
+/**
+ * Measures {@code EnhancedTreeGrid.getItemsWithChildrenRecursively}, used by
+ * {@code expandRecursively} and {@code collapseRecursively}, on synthetic trees.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeExpansionBenchmark {
+
+    /**
+     * The shape of the tree, as depth:branching. "7:5" is a wide tree of about
+     * 100k items, "16:2" a deeper one of about 130k items, "1000:1" a chain of
+     * single children.
+     */
+    @Param({ "7:5", "16:2", "1000:1" })
+    private String shape;
+
+    private BenchmarkTreeGrid grid;
+
+    private TreeData<BenchmarkItem> treeData;
+
+    private int depth;
+
+    @Setup
+    public void setUp() {
+        String[] parts = shape.split(":");
+        depth = Integer.parseInt(parts[0]);
+        treeData = BenchmarkItems.createTree(depth, Integer.parseInt(parts[1]));
+        grid = new BenchmarkTreeGrid();
+        grid.setTreeData(treeData);
+    }
+
+    @Benchmark
+    public int itemsWithChildrenRecursively() {
+        return grid.getItemsWithChildrenRecursively(treeData.getRootItems(), depth)
+                .size();
+    }
+
+    /**
+     * Exposes the recursion of {@link EnhancedTreeGrid}.
+     */
+    static class BenchmarkTreeGrid extends EnhancedTreeGrid<BenchmarkItem> {
+
+        @Override
+        protected Collection<BenchmarkItem> getItemsWithChildrenRecursively(
+                Collection<BenchmarkItem> items, int depth) {
+            return super.getItemsWithChildrenRecursively(items, depth);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks.jpa;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Person stored in the embedded database of the {@link SpecificationBenchmark},
+ * with an index on each filtered column.
+ */
+@Entity
+@Table(name = "person", indexes = {
+        @Index(name = "idx_person_last_name", columnList = "last_name"),
+        @Index(name = "idx_person_city", columnList = "city"),
+        @Index(name = "idx_person_status", columnList = "status"),
+        @Index(name = "idx_person_birth_date", columnList = "birth_date"),
+        @Index(name = "idx_person_last_login", columnList = "last_login"),
+        @Index(name = "idx_person_active", columnList = "active") })
+public class PersonEntity {
+
+    public enum Status {
+        MARRIED, SINGLE
+    }
+
+    @Id
+    private Long id;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    @Column(name = "city")
+    private String city;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private Status status;
+
+    @Column(name = "birth_date")
+    private LocalDate birthDate;
+
+    @Column(name = "last_login")
+    private ZonedDateTime lastLogin;
+
+    @Column(name = "active")
+    private boolean active;
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDate getBirthDate() {
+        return birthDate;
+    }
+
+    public ZonedDateTime getLastLogin() {
+        return lastLogin;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
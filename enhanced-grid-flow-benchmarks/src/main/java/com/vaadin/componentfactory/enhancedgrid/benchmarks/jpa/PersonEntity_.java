@@ -0,0 +1,25 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks.jpa;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+import javax.persistence.metamodel.SingularAttribute;
+import javax.persistence.metamodel.StaticMetamodel;
+
+/**
+ * Static metamodel of {@link PersonEntity}, populated by Hibernate when the
+ * entity manager factory is created. Written by hand so the benchmarks need
+ * no metamodel generator.
+ */
+@StaticMetamodel(PersonEntity.class)
+public abstract class PersonEntity_ {
+
+    public static volatile SingularAttribute<PersonEntity, Long> id;
+    public static volatile SingularAttribute<PersonEntity, String> firstName;
+    public static volatile SingularAttribute<PersonEntity, String> lastName;
+    public static volatile SingularAttribute<PersonEntity, String> city;
+    public static volatile SingularAttribute<PersonEntity, PersonEntity.Status> status;
+    public static volatile SingularAttribute<PersonEntity, LocalDate> birthDate;
+    public static volatile SingularAttribute<PersonEntity, ZonedDateTime> lastLogin;
+    public static volatile SingularAttribute<PersonEntity, Boolean> active;
+}
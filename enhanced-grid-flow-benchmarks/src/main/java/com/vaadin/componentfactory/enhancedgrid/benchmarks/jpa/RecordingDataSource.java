@@ -0,0 +1,143 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks.jpa;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+/**
+ * Data source recording the SQL statements prepared by Hibernate along with
+ * their parameters, so the {@link SpecificationBenchmark} can explain them.
+ */
+class RecordingDataSource implements DataSource {
+
+    /**
+     * A prepared statement and the parameters it was executed with.
+     */
+    static final class RecordedStatement {
+
+        final String sql;
+
+        final Map<Integer, Object> parameters = new TreeMap<>();
+
+        private RecordedStatement(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private final DataSource dataSource;
+
+    private final List<RecordedStatement> statements = new ArrayList<>();
+
+    private boolean recording;
+
+    RecordingDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    synchronized void startRecording() {
+        statements.clear();
+        recording = true;
+    }
+
+    synchronized List<RecordedStatement> stopRecording() {
+        recording = false;
+        return new ArrayList<>(statements);
+    }
+
+    private synchronized void record(RecordedStatement statement) {
+        if (recording) {
+            statements.add(statement);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recordingConnection(dataSource.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recordingConnection(dataSource.getConnection(username, password));
+    }
+
+    private Connection recordingConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement && args != null && args[0] instanceof String) {
+                        RecordedStatement statement = new RecordedStatement((String) args[0]);
+                        record(statement);
+                        return recordingStatement((PreparedStatement) result, statement);
+                    }
+                    return result;
+                });
+    }
+
+    private PreparedStatement recordingStatement(PreparedStatement preparedStatement, RecordedStatement statement) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    // setString(int, String), setDate(int, Date, Calendar), setNull(int, int)...
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer) {
+                        statement.parameters.put((Integer) args[0],
+                                method.getName().equals("setNull") ? null : args[1]);
+                    }
+                    return invoke(preparedStatement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        dataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        dataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return dataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return dataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return dataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return dataSource.isWrapperFor(iface);
+    }
+}
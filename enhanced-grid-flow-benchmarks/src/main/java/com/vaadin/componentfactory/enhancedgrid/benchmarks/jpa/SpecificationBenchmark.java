@@ -0,0 +1,348 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks.jpa;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.componentfactory.enhancedgrid.benchmarks.jpa.PersonEntity.Status;
+import com.vaadin.componentfactory.enhancedgrid.benchmarks.jpa.RecordingDataSource.RecordedStatement;
+import com.vaadin.flow.component.grid.filtering.BooleanFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.BooleanFilterField;
+import com.vaadin.flow.component.grid.filtering.EnumFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.EnumFilterField;
+import com.vaadin.flow.component.grid.filtering.GenericFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.GenericFilterField;
+import com.vaadin.flow.component.grid.filtering.LocalDateFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.LocalDateFilterField;
+import com.vaadin.flow.component.grid.filtering.ZonedDateTimeFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.ZonedDateTimeFilterField;
+import com.vaadin.flow.data.provider.ConfigurableFilterDataProvider;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+
+/**
+ * Runs the JPA {@link Specification}s built by the filter DTOs against an
+ * embedded H2 database, through an {@link EnhancedGrid} filtering on the
+ * backend and a Spring Data JPA repository, the way an application wires them.
+ * <p>
+ * For each filter type and some combinations, reports the latency of the count
+ * query and of the first page, the indexes the database uses according to its
+ * EXPLAIN output, and flags the predicates which cannot use an index: full
+ * table scans, functions applied to the column and leading wildcards. Run with
+ * e.g.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.vaadin.componentfactory.enhancedgrid.benchmarks.jpa.SpecificationBenchmark rows=2000000
+ * </pre>
+ *
+ * Options, all optional: {@code rows} in the database (default 2000000),
+ * {@code iterations} measured per scenario (default 10) and {@code plans} to
+ * print the whole EXPLAIN output.
+ */
+public class SpecificationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final int WARMUP_ITERATIONS = 3;
+
+    private static final Pattern INDEX = Pattern.compile("/\\* PUBLIC\\.(\\w+)");
+
+    private static final ZonedDateTime NOW = LocalDate.of(2022, 6, 1).atStartOfDay(ZoneId.systemDefault());
+
+    private final RecordingDataSource dataSource;
+
+    private final EntityManager entityManager;
+
+    private final PersonRepository repository;
+
+    private final ConfigurableFilterDataProvider<PersonEntity, Void, Specification<PersonEntity>> dataProvider;
+
+    private final EnhancedGrid<PersonEntity> grid = new EnhancedGrid<>();
+
+    private final GenericFilterField<PersonEntity, String> lastNameFilter;
+    private final EnumFilterField<PersonEntity, Status> statusFilter;
+    private final BooleanFilterField<PersonEntity> activeFilter;
+    private final LocalDateFilterField<PersonEntity> birthDateFilter;
+    private final ZonedDateTimeFilterField<PersonEntity> lastLoginFilter;
+
+    private SpecificationBenchmark(RecordingDataSource dataSource, EntityManager entityManager) {
+        this.dataSource = dataSource;
+        this.entityManager = entityManager;
+        repository = new JpaRepositoryFactory(entityManager).getRepository(PersonRepository.class);
+
+        // Page<T> findAll(Specification, Pageable) runs a count query along with each full page,
+        // the grid counts on its own, so the page is fetched with a plain criteria query
+        dataProvider = DataProvider.<PersonEntity, Specification<PersonEntity>>fromFilteringCallbacks(
+                query -> fetch(query.getFilter().orElse(null), query.getOffset(), query.getLimit()),
+                query -> (int) repository.count(query.getFilter().orElse(null))).withConfigurableFilter();
+        grid.setDataProvider(dataProvider);
+
+        lastNameFilter = new GenericFilterField<>(PersonEntity_.lastName);
+        grid.addColumn(PersonEntity::getLastName).setHeader("Last Name", lastNameFilter);
+        statusFilter = new EnumFilterField<>(PersonEntity_.status, Status.values());
+        grid.addColumn(PersonEntity::getStatus).setHeader("Status", statusFilter);
+        activeFilter = new BooleanFilterField<>(PersonEntity_.active);
+        grid.addColumn(PersonEntity::isActive).setHeader("Active", activeFilter);
+        birthDateFilter = new LocalDateFilterField<>(PersonEntity_.birthDate);
+        grid.addColumn(PersonEntity::getBirthDate).setHeader("Birth Date", birthDateFilter);
+        lastLoginFilter = new ZonedDateTimeFilterField<>(PersonEntity_.lastLogin);
+        grid.addColumn(PersonEntity::getLastLogin).setHeader("Last Login", lastLoginFilter);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "");
+        }
+        int rows = Integer.parseInt(options.getOrDefault("rows", "2000000"));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "10"));
+        boolean plans = options.containsKey("plans");
+
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1");
+        RecordingDataSource dataSource = new RecordingDataSource(h2);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("javax.persistence.nonJtaDataSource", dataSource);
+        EntityManagerFactory entityManagerFactory = Persistence.createEntityManagerFactory("benchmarks", properties);
+        try {
+            long start = System.nanoTime();
+            populate(h2, rows);
+            System.out.printf("%,d rows inserted in %.1f s%n", rows, (System.nanoTime() - start) / 1e9);
+
+            SpecificationBenchmark benchmark = new SpecificationBenchmark(dataSource,
+                    entityManagerFactory.createEntityManager());
+            benchmark.run(h2, iterations, plans);
+        } finally {
+            entityManagerFactory.close();
+        }
+    }
+
+    /**
+     * Fills the table in the database itself, which is much faster than
+     * persisting millions of entities. The values are spread evenly: 5000 last
+     * names, 2000 cities, 60% married, 30% active, birth dates over 70 years
+     * and logins over the last two years.
+     */
+    private static void populate(JdbcDataSource h2, int rows) throws SQLException {
+        try (Connection connection = h2.getConnection();
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO person (id, first_name, last_name, city, status, birth_date, last_login, active) "
+                                + "SELECT X, CONCAT('First', MOD(X * 7919, 300)), CONCAT('Name', MOD(X * 104729, 5000)), "
+                                + "CONCAT('City', MOD(X * 31, 2000)), "
+                                + "CASE WHEN MOD(X, 10) < 6 THEN 'MARRIED' ELSE 'SINGLE' END, "
+                                + "DATEADD(DAY, MOD(X * 37, 25567), DATE '1935-01-01'), "
+                                + "DATEADD(MINUTE, -MOD(X * 53, 1051200), TIMESTAMP '2022-06-01 00:00:00'), "
+                                + "MOD(X, 10) < 3 FROM SYSTEM_RANGE(1, ?)");
+                Statement analyze = connection.createStatement()) {
+            insert.setLong(1, rows);
+            insert.executeUpdate();
+            // selectivity statistics for the query planner
+            analyze.execute("ANALYZE");
+        }
+    }
+
+    private void run(JdbcDataSource h2, int iterations, boolean plans) throws SQLException {
+        Map<String, Runnable> scenarios = new LinkedHashMap<>();
+        scenarios.put("none", () -> {
+        });
+        scenarios.put("text contains", () -> lastNameFilter.setValue(
+                new GenericFieldFilterDto<>(PersonEntity_.lastName, false, false, false, "name42")));
+        scenarios.put("text contains, case sensitive", () -> lastNameFilter.setValue(
+                new GenericFieldFilterDto<>(PersonEntity_.lastName, false, true, false, "Name42")));
+        scenarios.put("text whole field", () -> lastNameFilter.setValue(
+                new GenericFieldFilterDto<>(PersonEntity_.lastName, true, false, false, "name42")));
+        scenarios.put("text whole field, case sensitive", () -> lastNameFilter.setValue(
+                new GenericFieldFilterDto<>(PersonEntity_.lastName, true, true, false, "Name42")));
+        scenarios.put("text inverted", () -> lastNameFilter.setValue(
+                new GenericFieldFilterDto<>(PersonEntity_.lastName, true, true, true, "Name42")));
+        scenarios.put("enum", () -> statusFilter.setValue(
+                new EnumFieldFilterDto<>(PersonEntity_.status, EnumSet.of(Status.SINGLE))));
+        scenarios.put("boolean", () -> activeFilter.setValue(
+                new BooleanFieldFilterDto<>(PersonEntity_.active, Boolean.TRUE)));
+        scenarios.put("local date range", () -> birthDateFilter.setValue(new LocalDateFieldFilterDto<>(
+                PersonEntity_.birthDate, LocalDate.of(1980, 1, 1), LocalDate.of(1980, 1, 31))));
+        scenarios.put("local date from", () -> birthDateFilter.setValue(new LocalDateFieldFilterDto<>(
+                PersonEntity_.birthDate, LocalDate.of(2004, 12, 1), null)));
+        scenarios.put("zoned date time range", () -> lastLoginFilter.setValue(new ZonedDateTimeFieldFilterDto<>(
+                PersonEntity_.lastLogin, NOW.minusDays(1), NOW)));
+        scenarios.put("text whole field + enum", () -> {
+            scenarios.get("text whole field, case sensitive").run();
+            scenarios.get("enum").run();
+        });
+        scenarios.put("local date range + boolean", () -> {
+            scenarios.get("local date range").run();
+            scenarios.get("boolean").run();
+        });
+        scenarios.put("all", () -> {
+            scenarios.get("text contains").run();
+            scenarios.get("enum").run();
+            scenarios.get("boolean").run();
+            scenarios.get("local date range").run();
+            scenarios.get("zoned date time range").run();
+        });
+
+        System.out.printf("%-34s %10s %18s %18s  %-40s %s%n", "scenario", "rows", "count p50/p90 ms",
+                "page p50/p90 ms", "indexes", "flags");
+        for (Map.Entry<String, Runnable> scenario : scenarios.entrySet()) {
+            clearFilters();
+            scenario.getValue().run();
+            try {
+                grid.applyBackendFilter();
+                runScenario(h2, scenario.getKey(), iterations, plans);
+            } catch (RuntimeException e) {
+                System.out.printf("%-34s failed: %s%n", scenario.getKey(), e);
+            }
+        }
+    }
+
+    private void runScenario(JdbcDataSource h2, String name, int iterations, boolean plans) throws SQLException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            dataProvider.size(new Query<>());
+            fetchFirstPage();
+        }
+
+        long[] countNanos = new long[iterations];
+        long[] pageNanos = new long[iterations];
+        int size = 0;
+        List<RecordedStatement> statements = Collections.emptyList();
+        for (int i = 0; i < iterations; i++) {
+            if (i == 0) {
+                dataSource.startRecording();
+            }
+            long start = System.nanoTime();
+            size = dataProvider.size(new Query<>());
+            countNanos[i] = System.nanoTime() - start;
+            start = System.nanoTime();
+            fetchFirstPage();
+            pageNanos[i] = System.nanoTime() - start;
+            if (i == 0) {
+                statements = dataSource.stopRecording();
+            }
+        }
+
+        Set<String> indexes = new LinkedHashSet<>();
+        Set<String> flags = new LinkedHashSet<>();
+        List<String> explained = new ArrayList<>();
+        for (RecordedStatement statement : statements) {
+            String plan = explain(h2, statement);
+            explained.add(plan);
+            Matcher matcher = INDEX.matcher(plan);
+            while (matcher.find()) {
+                indexes.add(matcher.group(1));
+            }
+            if (plan.contains(".tableScan") && plan.toUpperCase().contains("WHERE")) {
+                flags.add("full scan");
+            }
+            flagNonSargable(statement, flags);
+        }
+
+        System.out.printf("%-34s %,10d %8.1f /%8.1f %8.1f /%8.1f  %-40s %s%n", name, size, percentile(countNanos, 50),
+                percentile(countNanos, 90), percentile(pageNanos, 50), percentile(pageNanos, 90),
+                String.join(", ", indexes), String.join(", ", flags));
+        if (plans) {
+            explained.forEach(plan -> System.out.println("    " + plan.replace("\n", "\n    ")));
+        }
+    }
+
+    /**
+     * Flags the predicates an index cannot be used for, whatever the database.
+     */
+    private static void flagNonSargable(RecordedStatement statement, Set<String> flags) {
+        String where = statement.sql.toLowerCase();
+        where = where.contains(" where ") ? where.substring(where.indexOf(" where ")) : "";
+        if (where.contains("upper(") || where.contains("lower(")) {
+            flags.add("function on column");
+        }
+        if (where.contains("cast(")) {
+            flags.add("cast of column");
+        }
+        if (where.contains(" not ") || where.contains("<>")) {
+            flags.add("negation");
+        }
+        for (Object parameter : statement.parameters.values()) {
+            if (parameter instanceof String && ((String) parameter).startsWith("%")) {
+                flags.add("leading wildcard");
+            }
+        }
+    }
+
+    private static String explain(JdbcDataSource h2, RecordedStatement statement) throws SQLException {
+        try (Connection connection = h2.getConnection();
+                PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql)) {
+            for (Map.Entry<Integer, Object> parameter : statement.parameters.entrySet()) {
+                explain.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet result = explain.executeQuery()) {
+                return result.next() ? result.getString(1) : "";
+            }
+        }
+    }
+
+    private void clearFilters() {
+        lastNameFilter.setValue(new GenericFieldFilterDto<>(PersonEntity_.lastName));
+        statusFilter.setValue(new EnumFieldFilterDto<>(PersonEntity_.status));
+        activeFilter.setValue(new BooleanFieldFilterDto<>(PersonEntity_.active));
+        birthDateFilter.setValue(new LocalDateFieldFilterDto<>(PersonEntity_.birthDate));
+        lastLoginFilter.setValue(new ZonedDateTimeFieldFilterDto<>(PersonEntity_.lastLogin));
+    }
+
+    private void fetchFirstPage() {
+        dataProvider.fetch(new Query<>(0, PAGE_SIZE, Collections.emptyList(), null, null)).count();
+    }
+
+    private Stream<PersonEntity> fetch(Specification<PersonEntity> specification, int offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PersonEntity> query = builder.createQuery(PersonEntity.class);
+        Root<PersonEntity> root = query.from(PersonEntity.class);
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, builder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(builder.asc(root.get(PersonEntity_.id)));
+        List<PersonEntity> persons = entityManager.createQuery(query).setFirstResult(offset).setMaxResults(limit)
+                .getResultList();
+        // the grid keeps its items, the persistence context does not have to
+        entityManager.clear();
+        return persons.stream();
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        long[] sorted = Arrays.copyOf(nanos, nanos.length);
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,119 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks.load;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Phaser;
+
+import com.vaadin.componentfactory.enhancedgrid.benchmarks.BenchmarkItem;
+import com.vaadin.componentfactory.enhancedgrid.benchmarks.BenchmarkItems;
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+
+/**
+ * Headless load test simulating many concurrent sessions, each holding an
+ * {@code EnhancedGrid} and an {@code EnhancedTreeGrid}, see {@link GridSession}.
+ * <p>
+ * Reports the heap retained per session once the grids are opened and once
+ * they have been used, and the latency percentiles, allocated bytes and CPU
+ * time of each operation. Run with e.g.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.vaadin.componentfactory.enhancedgrid.benchmarks.load.GridLoadTest sessions=200 operations=200
+ * </pre>
+ *
+ * Options, all optional: {@code sessions} (default 100), {@code operations} per
+ * session (default 100), {@code items} of the grid (default 10000) and
+ * {@code tree} shape as depth:branching (default 4:8).
+ */
+public class GridLoadTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "");
+        }
+        int sessionCount = Integer.parseInt(options.getOrDefault("sessions", "100"));
+        int operations = Integer.parseInt(options.getOrDefault("operations", "100"));
+        int itemCount = Integer.parseInt(options.getOrDefault("items", "10000"));
+        String[] tree = options.getOrDefault("tree", "4:8").split(":");
+
+        // the "database", shared by all the sessions
+        List<BenchmarkItem> items = BenchmarkItems.create(itemCount);
+        TreeData<BenchmarkItem> treeData = BenchmarkItems
+                .createTree(Integer.parseInt(tree[0]), Integer.parseInt(tree[1]));
+
+        Phaser phaser = new Phaser(sessionCount + 1);
+        List<GridSession> sessions = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            GridSession session = new GridSession(i, items, treeData, operations, phaser);
+            Thread thread = new Thread(session, "session-" + i);
+            sessions.add(session);
+            threads.add(thread);
+            thread.start();
+        }
+
+        long setUpHeap = checkpoint(phaser);
+        long openedHeap = checkpoint(phaser);
+        long startTime = System.nanoTime();
+        long drivenHeap = checkpoint(phaser);
+        long duration = System.nanoTime() - startTime;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        OperationStats stats = new OperationStats();
+        int failures = 0;
+        for (GridSession session : sessions) {
+            if (session.getFailure() != null) {
+                if (failures++ == 0) {
+                    session.getFailure().printStackTrace();
+                }
+            } else {
+                stats.merge(session.getStats());
+            }
+        }
+
+        int succeeded = sessionCount - failures;
+        System.out.printf("%d sessions (%d failed), %d operations each, %d items, tree %s:%s%n",
+                sessionCount, failures, operations, itemCount, tree[0], tree[1]);
+        System.out.printf("heap retained per session: %s with the grids opened, %s after the operations%n",
+                formatBytes((openedHeap - setUpHeap) / Math.max(1, succeeded)),
+                formatBytes((drivenHeap - setUpHeap) / Math.max(1, succeeded)));
+        System.out.printf("operations phase: %.1f s%n", duration / 1e9);
+        stats.print(System.out);
+    }
+
+    /**
+     * Waits for all the sessions to reach the same step, and measures the used
+     * heap while they wait for the next step.
+     *
+     * @return the used heap after a full garbage collection, in bytes
+     */
+    static long checkpoint(Phaser phaser) {
+        phaser.arriveAndAwaitAdvance();
+        long usedHeap = usedHeap();
+        phaser.arriveAndAwaitAdvance();
+        return usedHeap;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    static String formatBytes(long bytes) {
+        if (Math.abs(bytes) < 1024) {
+            return bytes + " B";
+        }
+        if (Math.abs(bytes) < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024d);
+        }
+        return String.format("%.1f MB", bytes / (1024d * 1024d));
+    }
+}
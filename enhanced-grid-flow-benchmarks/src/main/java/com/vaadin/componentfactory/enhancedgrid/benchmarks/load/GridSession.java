@@ -0,0 +1,327 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks.load;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Phaser;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.github.mvysny.kaributesting.v10.MockVaadin;
+import com.github.mvysny.kaributesting.v10.Routes;
+import com.vaadin.componentfactory.enhancedgrid.EnhancedColumn;
+import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.componentfactory.enhancedgrid.benchmarks.BenchmarkItem;
+import com.vaadin.componentfactory.enhancedtreegrid.EnhancedTreeGrid;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.grid.Filter;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridSortOrder;
+import com.vaadin.flow.component.grid.editor.Editor;
+import com.vaadin.flow.component.grid.filtering.GenericFieldFilterDto;
+import com.vaadin.flow.component.grid.filtering.TextFilterField;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.binder.Binder;
+import com.vaadin.flow.data.provider.ConfigurableFilterDataProvider;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.SortDirection;
+import com.vaadin.flow.data.provider.hierarchy.AbstractBackEndHierarchicalDataProvider;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+
+/**
+ * One simulated user session of a {@link GridLoadTest}, run in its own thread
+ * with its own mocked Vaadin environment.
+ * <p>
+ * The session holds a lazy loading single selection grid and a lazy loading
+ * multi selection tree grid, configured like the demo's
+ * {@code LazySingleSelectView} and {@code LazyMultiTreeGridView}, and drives
+ * them with random scroll, filter, select, expand and edit operations, each
+ * followed by a simulated client round trip.
+ */
+class GridSession implements Runnable {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final String[] FILTER_VALUES = { "", "alpha", "delta", "echo 1", "7" };
+
+    private final List<BenchmarkItem> items;
+    private final TreeData<BenchmarkItem> treeData;
+    private final int operations;
+    private final Phaser phaser;
+    private final OperationStats stats = new OperationStats();
+    private final Random random;
+    private final com.sun.management.ThreadMXBean threads;
+
+    private EnhancedGrid<BenchmarkItem> grid;
+    private TextFilterField<BenchmarkItem> nameFilter;
+    private int gridStart;
+    private EnhancedTreeGrid<BenchmarkItem> treeGrid;
+    private int treeGridStart;
+
+    private Throwable failure;
+
+    GridSession(int id, List<BenchmarkItem> items, TreeData<BenchmarkItem> treeData,
+                int operations, Phaser phaser) {
+        this.items = items;
+        this.treeData = treeData;
+        this.operations = operations;
+        this.phaser = phaser;
+        this.random = new Random(id);
+        this.threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()
+                : null;
+    }
+
+    OperationStats getStats() {
+        return stats;
+    }
+
+    Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Sets the session up, opens the grids and drives them, waiting at a
+     * {@link GridLoadTest#checkpoint(Phaser) checkpoint} after each step so the
+     * heap can be measured while all the sessions are alive.
+     */
+    @Override
+    public void run() {
+        boolean setUp = step(() -> MockVaadin.setup(new Routes()));
+        try {
+            checkpoint();
+            step(this::open);
+            checkpoint();
+            step(this::drive);
+            checkpoint();
+        } finally {
+            if (setUp) {
+                MockVaadin.tearDown();
+            }
+        }
+    }
+
+    private boolean step(Runnable step) {
+        if (failure != null) {
+            return false;
+        }
+        try {
+            step.run();
+            return true;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            return false;
+        }
+    }
+
+    private void checkpoint() {
+        phaser.arriveAndAwaitAdvance();
+        phaser.arriveAndAwaitAdvance();
+    }
+
+    private void open() {
+        grid = createGrid();
+        treeGrid = createTreeGrid();
+        UI.getCurrent().add(grid, treeGrid);
+        grid.getDataCommunicator().setRequestedRange(0, PAGE_SIZE);
+        treeGrid.getDataCommunicator().setRequestedRange(0, PAGE_SIZE);
+        MockVaadin.clientRoundtrip();
+    }
+
+    private void drive() {
+        for (int i = 0; i < operations; i++) {
+            switch (random.nextInt(8)) {
+            case 0:
+            case 1:
+                measure("grid.scroll", () -> gridStart = scroll(grid));
+                break;
+            case 2:
+                measure("grid.filter", this::filter);
+                break;
+            case 3:
+                measure("grid.select", () -> select(grid, gridStart));
+                break;
+            case 4:
+                measure("grid.edit", this::edit);
+                break;
+            case 5:
+                measure("tree.scroll", () -> treeGridStart = scroll(treeGrid));
+                break;
+            case 6:
+                measure("tree.expand", this::expand);
+                break;
+            default:
+                measure("tree.select", () -> select(treeGrid, treeGridStart));
+                break;
+            }
+        }
+    }
+
+    private void measure(String operation, Runnable action) {
+        long threadId = Thread.currentThread().getId();
+        long allocated = threads != null ? threads.getThreadAllocatedBytes(threadId) : -1;
+        long cpu = threads != null ? threads.getCurrentThreadCpuTime() : -1;
+        long start = System.nanoTime();
+
+        action.run();
+        MockVaadin.clientRoundtrip();
+
+        long nanos = System.nanoTime() - start;
+        stats.record(operation, nanos,
+                allocated < 0 ? -1 : threads.getThreadAllocatedBytes(threadId) - allocated,
+                cpu < 0 ? -1 : threads.getCurrentThreadCpuTime() - cpu);
+    }
+
+    private int scroll(Grid<BenchmarkItem> grid) {
+        int size = grid.getDataCommunicator().getItemCount();
+        int start = size > PAGE_SIZE ? random.nextInt(size - PAGE_SIZE + 1) : 0;
+        grid.getDataCommunicator().setRequestedRange(start, PAGE_SIZE);
+        return start;
+    }
+
+    private void filter() {
+        nameFilter.setValue(new GenericFieldFilterDto<>(
+                FILTER_VALUES[random.nextInt(FILTER_VALUES.length)]));
+        grid.applyFilter();
+        // the client scrolls back to the top when the size changes
+        gridStart = 0;
+        grid.getDataCommunicator().setRequestedRange(0, PAGE_SIZE);
+    }
+
+    private void select(Grid<BenchmarkItem> grid, int start) {
+        BenchmarkItem item = pickItem(grid, start);
+        if (item != null) {
+            grid.select(item);
+        }
+    }
+
+    private void edit() {
+        BenchmarkItem item = pickItem(grid, gridStart);
+        if (item != null && grid.getDataCommunicator().getKeyMapper().has(item)) {
+            grid.editItem(item);
+            MockVaadin.clientRoundtrip();
+            grid.getEditor().cancel();
+        }
+    }
+
+    private void expand() {
+        BenchmarkItem item = pickItem(treeGrid, treeGridStart);
+        if (item != null && treeGrid.getDataCommunicator().hasChildren(item)) {
+            if (treeGrid.isExpanded(item)) {
+                treeGrid.collapse(item);
+            } else {
+                treeGrid.expand(item);
+            }
+        }
+    }
+
+    /**
+     * Returns a random item of the range shown by the client.
+     */
+    private BenchmarkItem pickItem(Grid<BenchmarkItem> grid, int start) {
+        int size = grid.getDataCommunicator().getItemCount();
+        if (start >= size) {
+            return null;
+        }
+        int index = start + random.nextInt(Math.min(PAGE_SIZE, size - start));
+        return grid.getDataCommunicator().getItem(index);
+    }
+
+    /**
+     * Lazy loading single selection grid with filtering, sorting and editing,
+     * like {@code LazySingleSelectView}.
+     */
+    private EnhancedGrid<BenchmarkItem> createGrid() {
+        ConfigurableFilterDataProvider<BenchmarkItem, Void, Filter<BenchmarkItem>> dataProvider =
+                DataProvider.<BenchmarkItem, Filter<BenchmarkItem>>fromFilteringCallbacks(
+                        query -> {
+                            Stream<BenchmarkItem> stream = fetch(query);
+                            if (query.getInMemorySorting() != null) {
+                                stream = stream.sorted(query.getInMemorySorting());
+                            }
+                            return stream.skip(query.getOffset()).limit(query.getLimit());
+                        },
+                        query -> (int) fetch(query).count()).withConfigurableFilter();
+
+        EnhancedGrid<BenchmarkItem> grid = new EnhancedGrid<>();
+        grid.setDataProvider(dataProvider);
+        dataProvider.setFilter(new Filter<>());
+        // the filter fields have no JPA attribute, they are applied as predicates
+        grid.setBackendFiltering(false);
+
+        grid.setSelectionPredicate(BenchmarkItem::isActive);
+
+        nameFilter = new TextFilterField<>();
+        EnhancedColumn<BenchmarkItem> nameColumn = grid.addColumn(BenchmarkItem::getName)
+                .setHeader("Name", nameFilter);
+        grid.addColumn(BenchmarkItem::getCategory).setHeader("Category");
+        grid.addColumn(BenchmarkItem::getDate).setHeader("Date");
+        grid.sort(Arrays.asList(new GridSortOrder<>(nameColumn, SortDirection.ASCENDING)));
+        grid.setMultiSort(true);
+        grid.setSelectionMode(Grid.SelectionMode.SINGLE);
+
+        grid.setEditablePredicate(BenchmarkItem::isActive);
+        Binder<BenchmarkItem> binder = new Binder<>(BenchmarkItem.class);
+        Editor<BenchmarkItem> editor = grid.getEditor();
+        editor.setBinder(binder);
+        editor.setBuffered(true);
+        TextField nameField = new TextField();
+        binder.forField(nameField).bind(BenchmarkItem::getName, null);
+        nameColumn.setEditorComponent(nameField);
+        return grid;
+    }
+
+    private Stream<BenchmarkItem> fetch(Query<BenchmarkItem, Filter<BenchmarkItem>> query) {
+        Predicate<BenchmarkItem> predicate = query.getFilter()
+                .map(Filter::getFilterPredicate).orElse(null);
+        return predicate == null ? items.stream() : items.stream().filter(predicate);
+    }
+
+    /**
+     * Lazy loading multi selection tree grid with editing, like
+     * {@code LazyMultiTreeGridView}.
+     */
+    private EnhancedTreeGrid<BenchmarkItem> createTreeGrid() {
+        EnhancedTreeGrid<BenchmarkItem> treeGrid = new EnhancedTreeGrid<>();
+        EnhancedColumn<BenchmarkItem> nameColumn = treeGrid
+                .addHierarchyColumn(BenchmarkItem::getName).setHeader("Name");
+        treeGrid.addColumn(BenchmarkItem::getCategory).setHeader("Category")
+                .setSortable(true);
+
+        treeGrid.setDataProvider(new AbstractBackEndHierarchicalDataProvider<BenchmarkItem, Void>() {
+
+            @Override
+            public int getChildCount(HierarchicalQuery<BenchmarkItem, Void> query) {
+                return treeData.getChildren(query.getParent()).size();
+            }
+
+            @Override
+            public boolean hasChildren(BenchmarkItem item) {
+                return !treeData.getChildren(item).isEmpty();
+            }
+
+            @Override
+            protected Stream<BenchmarkItem> fetchChildrenFromBackEnd(
+                    HierarchicalQuery<BenchmarkItem, Void> query) {
+                return treeData.getChildren(query.getParent()).stream()
+                        .skip(query.getOffset()).limit(query.getLimit());
+            }
+        });
+
+        treeGrid.setSelectionPredicate(BenchmarkItem::isActive);
+        treeGrid.setSelectionMode(Grid.SelectionMode.MULTI);
+
+        treeGrid.setEditablePredicate(BenchmarkItem::isActive);
+        Binder<BenchmarkItem> binder = new Binder<>(BenchmarkItem.class);
+        Editor<BenchmarkItem> editor = treeGrid.getEditor();
+        editor.setBinder(binder);
+        editor.setBuffered(true);
+        TextField nameField = new TextField();
+        binder.forField(nameField).bind(BenchmarkItem::getName, null);
+        nameColumn.setEditorComponent(nameField);
+        return treeGrid;
+    }
+}
@@ -0,0 +1,100 @@
+package com.vaadin.componentfactory.enhancedgrid.benchmarks.load;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Samples of the operations run by the sessions of a {@link GridLoadTest}:
+ * latency, allocated bytes and CPU time of each operation.
+ * <p>
+ * Each session records into its own instance, which are merged at the end of
+ * the run, so recording needs no synchronization.
+ */
+class OperationStats {
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    /**
+     * Records an operation.
+     *
+     * @param operation
+     *            the name of the operation
+     * @param nanos
+     *            the wall clock time of the operation
+     * @param allocatedBytes
+     *            the bytes allocated by the operation, -1 if unknown
+     * @param cpuNanos
+     *            the CPU time of the operation, -1 if unknown
+     */
+    void record(String operation, long nanos, long allocatedBytes, long cpuNanos) {
+        samples.computeIfAbsent(operation, o -> new Samples()).add(nanos,
+                allocatedBytes, cpuNanos);
+    }
+
+    synchronized void merge(OperationStats other) {
+        other.samples.forEach((operation, otherSamples) -> samples
+                .computeIfAbsent(operation, o -> new Samples()).addAll(otherSamples));
+    }
+
+    synchronized void print(PrintStream out) {
+        out.printf("%-14s %8s %9s %9s %9s %9s %12s %10s%n", "operation", "count",
+                "p50 ms", "p90 ms", "p99 ms", "max ms", "alloc/op", "cpu ms/op");
+        samples.forEach((operation, operationSamples) -> {
+            long[] latencies = Arrays.copyOf(operationSamples.latencies,
+                    operationSamples.count);
+            Arrays.sort(latencies);
+            out.printf("%-14s %8d %9.2f %9.2f %9.2f %9.2f %12s %10s%n", operation,
+                    operationSamples.count, millis(percentile(latencies, 0.5)),
+                    millis(percentile(latencies, 0.9)),
+                    millis(percentile(latencies, 0.99)),
+                    millis(latencies[latencies.length - 1]),
+                    operationSamples.allocatedBytes < 0 ? "n/a"
+                            : GridLoadTest.formatBytes(operationSamples.allocatedBytes
+                                    / operationSamples.count),
+                    operationSamples.cpuNanos < 0 ? "n/a"
+                            : String.format("%.2f", millis(operationSamples.cpuNanos)
+                                    / operationSamples.count));
+        });
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+
+    private static class Samples {
+
+        private long[] latencies = new long[64];
+        private int count;
+        private long allocatedBytes;
+        private long cpuNanos;
+
+        void add(long nanos, long allocated, long cpu) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            allocatedBytes = allocated < 0 || allocatedBytes < 0 ? -1
+                    : allocatedBytes + allocated;
+            cpuNanos = cpu < 0 || cpuNanos < 0 ? -1 : cpuNanos + cpu;
+        }
+
+        void addAll(Samples other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            allocatedBytes = other.allocatedBytes < 0 || allocatedBytes < 0 ? -1
+                    : allocatedBytes + other.allocatedBytes;
+            cpuNanos = other.cpuNanos < 0 || cpuNanos < 0 ? -1
+                    : cpuNanos + other.cpuNanos;
+        }
+    }
+}
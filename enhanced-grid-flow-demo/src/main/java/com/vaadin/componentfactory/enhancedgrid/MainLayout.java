@@ -1,5 +1,9 @@
 package com.vaadin.componentfactory.enhancedgrid;
 
+import com.vaadin.componentfactory.enhancedgrid.stress.LazyStressGridView;
+import com.vaadin.componentfactory.enhancedgrid.stress.LazyStressTreeGridView;
+import com.vaadin.componentfactory.enhancedgrid.stress.StressGridView;
+import com.vaadin.componentfactory.enhancedgrid.stress.StressTreeGridView;
 import com.vaadin.flow.component.applayout.AppLayout;
 import com.vaadin.flow.component.applayout.DrawerToggle;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
@@ -19,8 +23,13 @@ public class MainLayout extends AppLayout {
         final RouterLink lazySingleTree = new RouterLink("Lazy Single Selection Tree Grid", LazySingleTreeGridView.class);        
         final RouterLink lazyMultiTree = new RouterLink("Lazy Multiple Selection Tree Grid", LazyMultiTreeGridView.class);   
                 
+        final RouterLink stressGrid = new RouterLink("Stress Test Grid", StressGridView.class);
+        final RouterLink lazyStressGrid = new RouterLink("Stress Test Lazy Grid", LazyStressGridView.class);
+        final RouterLink stressTree = new RouterLink("Stress Test Tree Grid", StressTreeGridView.class);
+        final RouterLink lazyStressTree = new RouterLink("Stress Test Lazy Tree Grid", LazyStressTreeGridView.class);
+                
         final VerticalLayout menuLayout = new VerticalLayout(simpleSingleGrid, simpleMultiGrid, lazySingleGrid, lazyMultiGrid, 
-        		singleTree, multiTree, lazySingleTree, lazyMultiTree);
+        		singleTree, multiTree, lazySingleTree, lazyMultiTree, stressGrid, lazyStressGrid, stressTree, lazyStressTree);
         addToDrawer(menuLayout);
         addToNavbar(drawerToggle);
     }
@@ -1,6 +1,7 @@
 package com.vaadin.componentfactory.enhancedgrid.bean;
 
 import java.time.LocalDate;
+import java.time.ZonedDateTime;
 
 public class Person implements Cloneable {
     private int id;
@@ -13,6 +14,7 @@ public class Person implements Cloneable {
     private LocalDate birthDate;
     private boolean isSubscriber;
     private String email;
+    private ZonedDateTime lastLogin;
 
     public Person() {
 
@@ -128,6 +130,14 @@ public class Person implements Cloneable {
         this.email = email;
     }
 
+    public ZonedDateTime getLastLogin() {
+        return lastLogin;
+    }
+
+    public void setLastLogin(ZonedDateTime lastLogin) {
+        this.lastLogin = lastLogin;
+    }
+
     @Override
     public int hashCode() {
         return id;
@@ -0,0 +1,76 @@
+package com.vaadin.componentfactory.enhancedgrid.data;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import com.vaadin.componentfactory.enhancedgrid.bean.Department;
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+
+/**
+ * Generates a hierarchy of departments of any size, with an uneven number of
+ * children like a real organization: many leaves, mostly a handful of
+ * children, and now and then a node with hundreds of them.
+ * <p>
+ * The same seed always generates the same hierarchy.
+ */
+public class DepartmentGenerator {
+
+    private static final String[] LEVEL_NAMES = { "Division", "Department", "Team", "Group", "Unit", "Section" };
+
+    private static final int ROOT_COUNT = 20;
+
+    private final Random random;
+
+    public DepartmentGenerator(long seed) {
+        random = new Random(seed);
+    }
+
+    public TreeData<Department> generate(int count) {
+        TreeData<Department> treeData = new TreeData<>();
+        Deque<Department> parents = new ArrayDeque<>();
+        Deque<Integer> levels = new ArrayDeque<>();
+
+        int id = 0;
+        for (; id < Math.min(ROOT_COUNT, count); id++) {
+            Department root = create(id, null, 0);
+            treeData.addItem(null, root);
+            parents.add(root);
+            levels.add(0);
+        }
+
+        // breadth first, so the hierarchy grows wide before it grows deep
+        while (id < count && !parents.isEmpty()) {
+            Department parent = parents.poll();
+            int level = levels.poll() + 1;
+            int children = Math.min(childCount(), count - id);
+            for (int i = 0; i < children; i++, id++) {
+                Department child = create(id, parent, level);
+                treeData.addItem(parent, child);
+                parents.add(child);
+                levels.add(level);
+            }
+        }
+        return treeData;
+    }
+
+    private Department create(int id, Department parent, int level) {
+        Department department = new Department(id,
+                LEVEL_NAMES[Math.min(level, LEVEL_NAMES.length - 1)] + " " + id, parent,
+                PersonGenerator.randomFullName(random));
+        department.setArchive(random.nextInt(10) == 0);
+        return department;
+    }
+
+    private int childCount() {
+        int kind = random.nextInt(20);
+        if (kind < 6) {
+            return 0;
+        } else if (kind < 14) {
+            return 1 + random.nextInt(5);
+        } else if (kind < 19) {
+            return 5 + random.nextInt(16);
+        }
+        return 20 + random.nextInt(181);
+    }
+}
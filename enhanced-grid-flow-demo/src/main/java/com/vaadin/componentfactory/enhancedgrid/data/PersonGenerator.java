@@ -0,0 +1,104 @@
+package com.vaadin.componentfactory.enhancedgrid.data;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.vaadin.componentfactory.enhancedgrid.bean.Address;
+import com.vaadin.componentfactory.enhancedgrid.bean.MaritalStatus;
+import com.vaadin.componentfactory.enhancedgrid.bean.Person;
+
+/**
+ * Generates any number of persons with realistic cardinalities: a few hundred
+ * first names, a few thousand last names and cities, with a skewed
+ * distribution so some values are much more frequent than others.
+ * <p>
+ * The same seed always generates the same persons.
+ */
+public class PersonGenerator {
+
+    private static final String[] FIRST_NAMES = { "Aaron", "Adam", "Addison", "Alexis", "Alyssa", "Andrew", "Anna",
+            "Anton", "Arianna", "Audrey", "Ava", "Avery", "Ayden", "Bentley", "Brandon", "Brayden", "Brody",
+            "Brooklyn", "Caleb", "Cameron", "Carlos", "Carson", "Charlotte", "Christian", "Cooper", "David",
+            "Dominic", "Easton", "Elizabeth", "Ella", "Ellie", "Emma", "Evan", "Faith", "Genesis", "Grace",
+            "Grayson", "Hailey", "Hannah", "Harper", "Isaac", "Jack", "Jacob", "Jonathan", "Jose", "Joshua", "Julia",
+            "Katherine", "Kayden", "Kennedy", "Kevin", "Kimberly", "Lauren", "Layla", "Leah", "Levi", "Logan",
+            "London", "Lucy", "Lydia", "Madison", "Mason", "Mia", "Mickael", "Morgan", "Naomi", "Nathan", "Noah",
+            "Oliver", "Peter", "Riley", "Ryan", "Samuel", "Sophie", "Trinity", "Tyler", "Victoria", "Violet" };
+
+    private static final String[] NAME_PARTS = { "Al", "Ash", "Bar", "Bau", "Ben", "Black", "Bow", "Bra", "Brew",
+            "Buch", "Cal", "Car", "Cas", "Cha", "Con", "Del", "Fair", "Ford", "Fox", "Fu", "Gil", "Gom", "Grif",
+            "Har", "Haw", "Hen", "Hick", "Hol", "How", "Hut", "Jo", "Kane", "Kirk", "Knap", "Kra", "Law", "Les",
+            "Lyn", "Mad", "May", "Mit", "No", "Pace", "Park", "Pat", "Pier", "Pitt", "Pres", "Ram", "Rat", "Ree",
+            "Rid", "Ros", "Sal", "Ste", "Stri", "Sua", "Tate", "Wal", "West", "Whe", "Wil", "Witt", "Wood", "Ya" };
+
+    private static final String[] NAME_ENDINGS = { "", "er", "son", "ton", "ley", "man", "ford", "well", "ridge",
+            "field", "wood", "berg", "stein", "ard", "ins", "ett", "ow", "ey", "er", "ing", "ston", "worth", "by",
+            "lin", "ock", "ham", "ell", "mond", "ner", "away", "den", "cott" };
+
+    private static final int CITY_COUNT = 2000;
+
+    private static final int BIRTH_YEAR_FROM = 1935;
+
+    private static final int BIRTH_YEAR_TO = 2008;
+
+    private final Random random;
+
+    private final Address[] addresses;
+
+    private final ZonedDateTime now = ZonedDateTime.now(ZoneId.of("UTC")).truncatedTo(ChronoUnit.MINUTES);
+
+    public PersonGenerator(long seed) {
+        random = new Random(seed);
+        // persons share their address, so a million rows do not hold a million addresses
+        addresses = new Address[CITY_COUNT];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = new Address(String.format("%05d", random.nextInt(100000)),
+                    randomLastName(random) + (i % 3 == 0 ? "ville" : i % 3 == 1 ? " City" : "burg"));
+        }
+    }
+
+    public List<Person> generate(int count) {
+        List<Person> persons = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            persons.add(generatePerson(id));
+        }
+        return persons;
+    }
+
+    private Person generatePerson(int id) {
+        LocalDate birthDate = LocalDate.of(BIRTH_YEAR_FROM, 1, 1)
+                .plusDays(random.nextInt((BIRTH_YEAR_TO - BIRTH_YEAR_FROM) * 365));
+        int age = (int) ChronoUnit.YEARS.between(birthDate, now.toLocalDate());
+        Person person = new Person(id, skewed(FIRST_NAMES, random), randomLastName(random), age,
+                skewed(addresses, random), null,
+                random.nextInt(10) < 6 ? MaritalStatus.MARRIED : MaritalStatus.SINGLE, birthDate);
+        person.setSubscriber(random.nextInt(10) < 3);
+        // most users logged in recently, some not for a long time
+        person.setLastLogin(now.minusMinutes((long) (Math.pow(random.nextDouble(), 4) * 2 * 365 * 24 * 60)));
+        return person;
+    }
+
+    /**
+     * @return a random full name, e.g. for the managers of generated departments
+     */
+    static String randomFullName(Random random) {
+        return skewed(FIRST_NAMES, random) + " " + randomLastName(random);
+    }
+
+    private static String randomLastName(Random random) {
+        return skewed(NAME_PARTS, random) + skewed(NAME_ENDINGS, random);
+    }
+
+    /**
+     * Picks a value, the first ones being much more frequent than the last ones.
+     */
+    private static <T> T skewed(T[] values, Random random) {
+        double value = random.nextDouble();
+        return values[(int) (value * value * values.length)];
+    }
+}
@@ -0,0 +1,46 @@
+package com.vaadin.componentfactory.enhancedgrid.data;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.vaadin.componentfactory.enhancedgrid.bean.Department;
+import com.vaadin.componentfactory.enhancedgrid.bean.Person;
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+
+/**
+ * Generated data of the stress views, shared by all the sessions and created
+ * on first use.
+ * <p>
+ * The sizes are set with the {@code stress.rows} (1,000,000 persons by
+ * default) and {@code stress.nodes} (500,000 departments by default) system
+ * properties, and the generated values with {@code stress.seed}.
+ */
+public final class StressData {
+
+    public static final int ROWS = Integer.getInteger("stress.rows", 1_000_000);
+
+    public static final int NODES = Integer.getInteger("stress.nodes", 500_000);
+
+    private static final long SEED = Long.getLong("stress.seed", 42);
+
+    private static List<Person> persons;
+
+    private static TreeData<Department> departments;
+
+    private StressData() {
+    }
+
+    public static synchronized List<Person> getPersons() {
+        if (persons == null) {
+            persons = Collections.unmodifiableList(new PersonGenerator(SEED).generate(ROWS));
+        }
+        return persons;
+    }
+
+    public static synchronized TreeData<Department> getDepartments() {
+        if (departments == null) {
+            departments = new DepartmentGenerator(SEED).generate(NODES);
+        }
+        return departments;
+    }
+}
@@ -0,0 +1,121 @@
+package com.vaadin.componentfactory.enhancedgrid.stress;
+
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.persistence.metamodel.SingularAttribute;
+
+import com.vaadin.componentfactory.enhancedgrid.EnhancedColumn;
+import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.componentfactory.enhancedgrid.bean.Department;
+import com.vaadin.componentfactory.enhancedgrid.bean.MaritalStatus;
+import com.vaadin.componentfactory.enhancedgrid.bean.Person;
+import com.vaadin.componentfactory.enhancedtreegrid.EnhancedTreeGrid;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.checkbox.Checkbox;
+import com.vaadin.flow.component.grid.Grid.SelectionMode;
+import com.vaadin.flow.component.grid.filtering.BooleanFilterField;
+import com.vaadin.flow.component.grid.filtering.EnumFilterField;
+import com.vaadin.flow.component.grid.filtering.GenericFilterField;
+import com.vaadin.flow.component.grid.filtering.LocalDateFilterField;
+import com.vaadin.flow.component.grid.filtering.TextFilterField;
+import com.vaadin.flow.component.grid.filtering.ZonedDateTimeFilterField;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.radiobutton.RadioButtonGroup;
+
+/**
+ * Base of the stress views: a grid over generated data with all the filter
+ * field types, a selection mode switch and a {@link StressStatsPanel}.
+ */
+public abstract class AbstractStressView extends Div {
+
+    protected void init(String description, EnhancedGrid<?> grid) {
+        StressGridMetrics metrics = new StressGridMetrics();
+        grid.setMetrics(metrics);
+        grid.setMetricsId(getClass().getSimpleName());
+        grid.setHeight("600px");
+        grid.setSelectionMode(SelectionMode.SINGLE);
+        // the filter fields have no JPA attribute, they are applied as predicates
+        grid.setBackendFiltering(false);
+        grid.setLockTimeWarningThreshold(Duration.ofMillis(200));
+
+        RadioButtonGroup<SelectionMode> selectionMode = new RadioButtonGroup<>();
+        selectionMode.setLabel("Selection mode");
+        selectionMode.setItems(SelectionMode.SINGLE, SelectionMode.MULTI);
+        selectionMode.setValue(SelectionMode.SINGLE);
+
+        // the items are fetched outside of the session lock, the selection is shown on the next poll
+        Button selectAllAsyncButton = new Button("Select all (async)",
+                e -> grid.selectAllAsync(ForkJoinPool.commonPool()));
+        selectAllAsyncButton.setEnabled(false);
+        selectionMode.addValueChangeListener(e -> {
+            grid.setSelectionMode(e.getValue());
+            selectAllAsyncButton.setEnabled(e.getValue() == SelectionMode.MULTI);
+        });
+
+        // add button to clear all selected filters
+        Button clearFiltersButton = new Button("Clear Filters", e -> grid.clearAllFilters());
+
+        Checkbox trafficOverlay = new Checkbox("Traffic overlay",
+                e -> grid.setTrafficOverlayVisible(e.getValue()));
+
+        HorizontalLayout toolbar = new HorizontalLayout(selectionMode, selectAllAsyncButton, clearFiltersButton,
+                trafficOverlay);
+        toolbar.setDefaultVerticalComponentAlignment(Alignment.BASELINE);
+        if (!(grid instanceof EnhancedTreeGrid)) {
+            // the tree grids send their rows with the hierarchical updates, which are not compacted
+            Checkbox compactRows = new Checkbox("Compact rows", e -> grid.setCompactRowEncoding(e.getValue()));
+            toolbar.add(compactRows);
+        }
+
+        add(new Paragraph(description), toolbar, grid, new StressStatsPanel(grid, metrics));
+    }
+
+    /**
+     * Add the columns of the persons, with one filter field of each type.
+     */
+    @SuppressWarnings("unchecked")
+    protected static void addPersonColumns(EnhancedGrid<Person> grid) {
+        // the filters are applied on the values of the value providers, not on the formatted ones
+        EnhancedColumn<Person> idColumn = grid.addColumn(Person::getId)
+                .setHeader("Id", new GenericFilterField<Person, Integer>());
+        idColumn.setValueProvider(Person::getId);
+        grid.addColumn(Person::getFirstName).setHeader("First Name", new TextFilterField<Person>());
+        grid.addColumn(Person::getLastName).setHeader("Last Name",
+                new com.vaadin.componentfactory.enhancedgrid.filtering.TextFilterField());
+        EnhancedColumn<Person> ageColumn = grid.addColumn(Person::getAge)
+                .setHeader("Age", new GenericFilterField<Person, Integer>());
+        ageColumn.setValueProvider(Person::getAge);
+        grid.addColumn(person -> person.getAddress().getCity()).setHeader("City");
+        EnhancedColumn<Person> maritalStatusColumn = grid.addColumn(Person::getMaritalStatus)
+                .setHeader("Marital Status", new EnumFilterField<>(
+                        (SingularAttribute<Person, MaritalStatus>) null, MaritalStatus.values()));
+        maritalStatusColumn.setValueProvider(Person::getMaritalStatus);
+        EnhancedColumn<Person> birthDateColumn = grid.addColumn(Person::getBirthDate)
+                .setHeader("Birth Date", new LocalDateFilterField<Person>());
+        birthDateColumn.setValueProvider(Person::getBirthDate);
+        EnhancedColumn<Person> lastLoginColumn = grid.addColumn(Person::getLastLogin)
+                .setHeader("Last Login", new ZonedDateTimeFilterField<Person>());
+        lastLoginColumn.setValueProvider(Person::getLastLogin);
+        EnhancedColumn<Person> subscriberColumn = grid.addColumn(Person::isSubscriber)
+                .setHeader("Subscriber", new BooleanFilterField<Person>(null));
+        subscriberColumn.setValueProvider(Person::isSubscriber);
+    }
+
+    /**
+     * Add the columns of the departments, with a filter field on each.
+     */
+    protected static void addDepartmentColumns(EnhancedTreeGrid<Department> grid) {
+        grid.addHierarchyColumn(Department::getName).setHeader("Department Name", new TextFilterField<Department>());
+        EnhancedColumn<Department> idColumn = grid.addColumn(Department::getId)
+                .setHeader("Id", new GenericFilterField<Department, Integer>());
+        idColumn.setValueProvider(Department::getId);
+        grid.addColumn(Department::getManager).setHeader("Manager", new TextFilterField<Department>());
+        EnhancedColumn<Department> archiveColumn = grid.addColumn(Department::isArchive)
+                .setHeader("Archived", new BooleanFilterField<Department>(null));
+        archiveColumn.setValueProvider(Department::isArchive);
+    }
+}
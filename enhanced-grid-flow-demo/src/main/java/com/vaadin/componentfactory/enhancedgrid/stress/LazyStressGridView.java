@@ -0,0 +1,49 @@
+package com.vaadin.componentfactory.enhancedgrid.stress;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.componentfactory.enhancedgrid.MainLayout;
+import com.vaadin.componentfactory.enhancedgrid.bean.Person;
+import com.vaadin.componentfactory.enhancedgrid.data.StressData;
+import com.vaadin.flow.component.grid.Filter;
+import com.vaadin.flow.data.provider.ConfigurableFilterDataProvider;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.router.Route;
+
+/**
+ * Stress view of a grid loading the generated persons lazily, filtering and
+ * sorting them on each fetch like a naive backend would.
+ */
+@Route(value = "stress-lazy-grid", layout = MainLayout.class)
+public class LazyStressGridView extends AbstractStressView {
+
+    public LazyStressGridView() {
+        ConfigurableFilterDataProvider<Person, Void, Filter<Person>> dataProvider =
+                DataProvider.<Person, Filter<Person>>fromFilteringCallbacks(
+                        query -> {
+                            Stream<Person> persons = fetch(query);
+                            if (query.getInMemorySorting() != null) {
+                                persons = persons.sorted(query.getInMemorySorting());
+                            }
+                            return persons.skip(query.getOffset()).limit(query.getLimit());
+                        },
+                        query -> (int) fetch(query).count()).withConfigurableFilter();
+
+        EnhancedGrid<Person> grid = new EnhancedGrid<>();
+        grid.setDataProvider(dataProvider);
+        dataProvider.setFilter(new Filter<>());
+        addPersonColumns(grid);
+
+        init(String.format("Lazy loading grid with %,d generated persons", StressData.ROWS), grid);
+    }
+
+    private static Stream<Person> fetch(Query<Person, Filter<Person>> query) {
+        List<Person> persons = StressData.getPersons();
+        SerializablePredicate<Person> predicate = query.getFilter().map(Filter::getFilterPredicate).orElse(null);
+        return predicate != null ? persons.stream().filter(predicate) : persons.stream();
+    }
+}
@@ -0,0 +1,65 @@
+package com.vaadin.componentfactory.enhancedgrid.stress;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.vaadin.componentfactory.enhancedgrid.MainLayout;
+import com.vaadin.componentfactory.enhancedgrid.bean.Department;
+import com.vaadin.componentfactory.enhancedgrid.data.StressData;
+import com.vaadin.componentfactory.enhancedtreegrid.EnhancedTreeGrid;
+import com.vaadin.flow.component.grid.Filter;
+import com.vaadin.flow.data.provider.hierarchy.AbstractBackEndHierarchicalDataProvider;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalConfigurableFilterDataProvider;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.router.Route;
+
+/**
+ * Stress view of a tree grid loading the generated departments lazily.
+ * <p>
+ * The filters are applied level by level, like most backends do: the children
+ * of a department which does not match are not shown.
+ */
+@Route(value = "stress-lazy-tree", layout = MainLayout.class)
+public class LazyStressTreeGridView extends AbstractStressView {
+
+    public LazyStressTreeGridView() {
+        HierarchicalConfigurableFilterDataProvider<Department, Void, Filter<Department>> dataProvider =
+                new AbstractBackEndHierarchicalDataProvider<Department, Filter<Department>>() {
+
+            @Override
+            public int getChildCount(HierarchicalQuery<Department, Filter<Department>> query) {
+                return (int) fetch(query).count();
+            }
+
+            @Override
+            public boolean hasChildren(Department item) {
+                return !StressData.getDepartments().getChildren(item).isEmpty();
+            }
+
+            @Override
+            protected Stream<Department> fetchChildrenFromBackEnd(
+                    HierarchicalQuery<Department, Filter<Department>> query) {
+                Stream<Department> departments = fetch(query);
+                if (query.getInMemorySorting() != null) {
+                    departments = departments.sorted(query.getInMemorySorting());
+                }
+                return departments.skip(query.getOffset()).limit(query.getLimit());
+            }
+        }.withConfigurableFilter();
+
+        EnhancedTreeGrid<Department> grid = new EnhancedTreeGrid<>();
+        grid.setDataProvider(dataProvider);
+        dataProvider.setFilter(new Filter<>());
+        addDepartmentColumns(grid);
+
+        init(String.format("Lazy loading tree grid with %,d generated departments", StressData.NODES), grid);
+    }
+
+    private static Stream<Department> fetch(HierarchicalQuery<Department, Filter<Department>> query) {
+        List<Department> children = StressData.getDepartments().getChildren(query.getParent());
+        SerializablePredicate<Department> predicate = query.getFilter().map(Filter::getFilterPredicate)
+                .orElse(null);
+        return predicate != null ? children.stream().filter(predicate) : children.stream();
+    }
+}
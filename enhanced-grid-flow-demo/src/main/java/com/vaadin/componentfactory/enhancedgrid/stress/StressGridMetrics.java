@@ -0,0 +1,67 @@
+package com.vaadin.componentfactory.enhancedgrid.stress;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridMetrics;
+
+/**
+ * Keeps the measurements of the grid of a stress view, so they can be shown
+ * by its {@link StressStatsPanel}.
+ */
+public class StressGridMetrics implements GridMetrics {
+
+    private static final int COUNT = 0;
+    private static final int TOTAL = 1;
+    private static final int LAST = 2;
+    private static final int MAX = 3;
+
+    private final Map<String, long[]> times = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> values = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordTime(String gridId, String operation, long nanos) {
+        long[] time = times.computeIfAbsent(operation, key -> new long[4]);
+        time[COUNT]++;
+        time[TOTAL] += nanos;
+        time[LAST] = nanos;
+        time[MAX] = Math.max(time[MAX], nanos);
+    }
+
+    @Override
+    public void recordValue(String gridId, String name, long value) {
+        values.put(name, value);
+    }
+
+    public long getCount(String operation) {
+        return get(operation, COUNT);
+    }
+
+    public double getLastMillis(String operation) {
+        return get(operation, LAST) / 1_000_000.0;
+    }
+
+    public double getAverageMillis(String operation) {
+        long count = getCount(operation);
+        return count == 0 ? 0 : get(operation, TOTAL) / 1_000_000.0 / count;
+    }
+
+    public double getMaxMillis(String operation) {
+        return get(operation, MAX) / 1_000_000.0;
+    }
+
+    public long getLastValue(String name) {
+        return values.getOrDefault(name, 0L);
+    }
+
+    public void reset() {
+        times.clear();
+        values.clear();
+    }
+
+    private long get(String operation, int index) {
+        long[] time = times.get(operation);
+        return time != null ? time[index] : 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.vaadin.componentfactory.enhancedgrid.stress;
+
+import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.componentfactory.enhancedgrid.MainLayout;
+import com.vaadin.componentfactory.enhancedgrid.bean.Person;
+import com.vaadin.componentfactory.enhancedgrid.data.StressData;
+import com.vaadin.flow.router.Route;
+
+/**
+ * Stress view of a grid holding all the generated persons in memory.
+ */
+@Route(value = "stress-grid", layout = MainLayout.class)
+public class StressGridView extends AbstractStressView {
+
+    public StressGridView() {
+        EnhancedGrid<Person> grid = new EnhancedGrid<>();
+        grid.setItems(StressData.getPersons());
+        addPersonColumns(grid);
+
+        init(String.format("In memory grid with %,d generated persons", StressData.ROWS), grid);
+    }
+}
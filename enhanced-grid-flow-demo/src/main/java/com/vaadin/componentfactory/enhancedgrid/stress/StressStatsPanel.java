@@ -0,0 +1,99 @@
+package com.vaadin.componentfactory.enhancedgrid.stress;
+
+import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridMetrics;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.FlexComponent.Alignment;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Shows the fetch counts and latencies of the grid of a stress view, the
+ * memory held by the grid and the heap of the server, refreshed every second.
+ */
+public class StressStatsPanel extends HorizontalLayout {
+
+    private static final int REFRESH_INTERVAL = 1000;
+
+    private static final double MB = 1024 * 1024;
+
+    private final EnhancedGrid<?> grid;
+
+    private final StressGridMetrics metrics;
+
+    private final Span fetches = new Span();
+    private final Span counts = new Span();
+    private final Span filtering = new Span();
+    private final Span rows = new Span();
+    private final Span selection = new Span();
+    private final Span expanding = new Span();
+    private final Span memory = new Span();
+
+    private Registration pollRegistration;
+
+    public StressStatsPanel(EnhancedGrid<?> grid, StressGridMetrics metrics) {
+        this.grid = grid;
+        this.metrics = metrics;
+
+        Button reset = new Button("Reset", e -> {
+            metrics.reset();
+            refresh();
+        });
+        Button gc = new Button("Run GC", e -> {
+            System.gc();
+            refresh();
+        });
+
+        Div stats = new Div(fetches, counts, filtering, rows, selection, expanding, memory);
+        stats.getStyle().set("display", "grid").set("grid-template-columns", "repeat(2, auto)")
+                .set("column-gap", "var(--lumo-space-l)").set("font-size", "var(--lumo-font-size-s)");
+
+        setDefaultVerticalComponentAlignment(Alignment.CENTER);
+        add(stats, reset, gc);
+        refresh();
+    }
+
+    private void refresh() {
+        fetches.setText(String.format("Fetches: %d (last %.1f ms, avg %.1f ms, max %.1f ms)",
+                metrics.getCount(GridMetrics.FETCH), metrics.getLastMillis(GridMetrics.FETCH),
+                metrics.getAverageMillis(GridMetrics.FETCH), metrics.getMaxMillis(GridMetrics.FETCH)));
+        counts.setText(String.format("Counts: %d (last %.1f ms, avg %.1f ms)",
+                metrics.getCount(GridMetrics.COUNT), metrics.getLastMillis(GridMetrics.COUNT),
+                metrics.getAverageMillis(GridMetrics.COUNT)));
+        filtering.setText(String.format("Filtering: %d (last %.1f ms)",
+                metrics.getCount(GridMetrics.APPLY_FRONTEND_FILTER),
+                metrics.getLastMillis(GridMetrics.APPLY_FRONTEND_FILTER)));
+        rows.setText(String.format("Rows sent in the last round trip: %d",
+                metrics.getLastValue(GridMetrics.ROWS_SENT)));
+        selection.setText(String.format("Selected: %d (last update %.1f ms)",
+                metrics.getLastValue(GridMetrics.SELECTION_SIZE),
+                metrics.getLastMillis(GridMetrics.SELECTION_UPDATE)));
+        expanding.setText(String.format("Expand: %d (last %.1f ms), collapse: %d (last %.1f ms)",
+                metrics.getCount(GridMetrics.EXPAND), metrics.getLastMillis(GridMetrics.EXPAND),
+                metrics.getCount(GridMetrics.COLLAPSE), metrics.getLastMillis(GridMetrics.COLLAPSE)));
+
+        Runtime runtime = Runtime.getRuntime();
+        memory.setText(String.format("Grid: %.1f MB, server heap: %.0f / %.0f MB",
+                grid.getMemoryFootprint().getEstimatedBytes() / MB,
+                (runtime.totalMemory() - runtime.freeMemory()) / MB, runtime.maxMemory() / MB));
+    }
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        attachEvent.getUI().setPollInterval(REFRESH_INTERVAL);
+        pollRegistration = attachEvent.getUI().addPollListener(e -> refresh());
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        detachEvent.getUI().setPollInterval(-1);
+        pollRegistration.remove();
+        pollRegistration = null;
+        super.onDetach(detachEvent);
+    }
+}
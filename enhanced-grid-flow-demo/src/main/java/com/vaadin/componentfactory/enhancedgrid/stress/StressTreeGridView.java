@@ -0,0 +1,23 @@
+package com.vaadin.componentfactory.enhancedgrid.stress;
+
+import com.vaadin.componentfactory.enhancedgrid.MainLayout;
+import com.vaadin.componentfactory.enhancedgrid.bean.Department;
+import com.vaadin.componentfactory.enhancedgrid.data.StressData;
+import com.vaadin.componentfactory.enhancedtreegrid.EnhancedTreeGrid;
+import com.vaadin.flow.data.provider.hierarchy.TreeDataProvider;
+import com.vaadin.flow.router.Route;
+
+/**
+ * Stress view of a tree grid holding all the generated departments in memory.
+ */
+@Route(value = "stress-tree", layout = MainLayout.class)
+public class StressTreeGridView extends AbstractStressView {
+
+    public StressTreeGridView() {
+        EnhancedTreeGrid<Department> grid = new EnhancedTreeGrid<>();
+        grid.setDataProvider(new TreeDataProvider<>(StressData.getDepartments()));
+        addDepartmentColumns(grid);
+
+        init(String.format("In memory tree grid with %,d generated departments", StressData.NODES), grid);
+    }
+}
@@ -0,0 +1,124 @@
+package com.vaadin.componentfactory.enhancedgrid;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Dictionary used to send the rows of an {@link EnhancedGrid} as positional
+ * arrays instead of objects.
+ * <p>
+ * Each property name gets an index the first time it is sent, and each
+ * distinct set of properties (the shape of a row) gets an index too. A row is
+ * then sent as its shape index followed by its values, in the order of the
+ * shape. The entries added while encoding a page are sent along with it, so
+ * the client side dictionary in enhanced-grid-compact-rows.js stays in sync.
+ */
+@SuppressWarnings("serial")
+class CompactRowDictionary implements Serializable {
+
+	private static final int MAX_SHAPES = 1024;
+
+	private final Map<String, Integer> keys = new HashMap<>();
+
+	private final Map<String, Integer> shapes = new HashMap<>();
+
+	/**
+	 * Encodes a page of rows.
+	 *
+	 * @param items
+	 *            the rows, as generated by the data communicator
+	 * @return the page holding the new dictionary entries ("k" for the keys,
+	 *         "s" for the shapes) and the rows ("r"), with "x" set if the
+	 *         client has to forget its dictionary first
+	 */
+	JsonObject encode(List<JsonValue> items) {
+		JsonObject page = Json.createObject();
+		if (shapes.size() >= MAX_SHAPES) {
+			reset();
+			page.put("x", true);
+		}
+
+		JsonArray newKeys = Json.createArray();
+		JsonArray newShapes = Json.createArray();
+		JsonArray rows = Json.createArray();
+		for (JsonValue value : items) {
+			JsonObject item = (JsonObject) value;
+			String[] itemKeys = item.keys();
+
+			StringBuilder shapeKey = new StringBuilder();
+			JsonArray shapeKeys = Json.createArray();
+			for (String key : itemKeys) {
+				Integer index = keys.get(key);
+				if (index == null) {
+					index = keys.size();
+					keys.put(key, index);
+					newKeys.set(newKeys.length(), key);
+				}
+				shapeKey.append(index).append(',');
+				shapeKeys.set(shapeKeys.length(), index);
+			}
+
+			Integer shape = shapes.get(shapeKey.toString());
+			if (shape == null) {
+				shape = shapes.size();
+				shapes.put(shapeKey.toString(), shape);
+				newShapes.set(newShapes.length(), shapeKeys);
+			}
+
+			JsonArray row = Json.createArray();
+			row.set(0, shape);
+			for (String key : itemKeys) {
+				row.set(row.length(), item.get(key));
+			}
+			rows.set(rows.length(), row);
+		}
+
+		page.put("k", newKeys);
+		page.put("s", newShapes);
+		page.put("r", rows);
+		return page;
+	}
+
+	/**
+	 * Forgets all the entries, e.g. when the grid is attached again and the
+	 * client side dictionary is empty.
+	 */
+	void reset() {
+		keys.clear();
+		shapes.clear();
+	}
+
+	/**
+	 * @return the number of keys and shapes in the dictionary
+	 */
+	int size() {
+		return keys.size() + shapes.size();
+	}
+}
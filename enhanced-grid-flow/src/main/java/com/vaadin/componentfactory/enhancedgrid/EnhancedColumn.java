@@ -38,6 +38,7 @@ import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.Icon;
 import com.vaadin.flow.data.renderer.Renderer;
+import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.internal.HtmlUtils;
 
@@ -51,6 +52,8 @@ import com.vaadin.flow.internal.HtmlUtils;
 @JsModule(value = "./src/enhanced-grid-sorter.js")
 public class EnhancedColumn<T> extends Grid.Column<T> {
 
+	private static final String FILTERED_ATTRIBUTE = "data-enhanced-grid-filtered";
+
 	private HasValueAndElement<?, ? extends FilterFieldDto> filter;
 	
 	private ValueProvider<T, ?> valueProvider;
@@ -111,11 +114,42 @@ public class EnhancedColumn<T> extends Grid.Column<T> {
 	private void addFilterButtonToHeader(Component headerComponent, HasValueAndElement<?, ? extends FilterFieldDto> filter) {
 		this.filter = filter;
 		this.headerComponent = headerComponent;
-                
+		
+		// the filter field (popup component) is only built when the filter button is first clicked
+		grid.registerFilterableColumn(getInternalId(), this);
+		
+		// apply a preselected filter without building the filter field
+		if(!filter.isEmpty()) {
+			grid.onApplyFilter(filter.getValue());
+		}
+	}
+	
+	/**
+	 * Open the filter field if it is closed, close it otherwise.
+	 * 
+	 * The filter field is created the first time this method is called, 
+	 * unless the grid shares one filter field between all its columns.
+	 */
+	void toggleFilterField() {
+		if(grid.isSharedFilterPopup()) {
+			grid.toggleSharedFilterField(getInternalId(), this, headerComponent, filter.getElement().getComponent().get());
+			return;
+		}
+		if(filterField == null) {
+			createFilterField();
+		}
+		if(filterField.isOpened()) {
+			filterField.hide();
+		} else {
+			filterField.show();
+		}
+	}
+	
+	private void createFilterField() {
         // add filter field (popup component) and set filter as it's filter component
         filterField = new FilterField();
         filterField.addApplyFilterListener(grid);
-        filterField.addFilterComponent(filter.getElement().getComponent().get());
+        filterField.setFilterComponent(filter.getElement().getComponent().get());
         
         filterField.addPopupOpenChangedEventListener(e -> {
            	if(grid.getEditor().getItem() != null) {
@@ -136,31 +170,39 @@ public class EnhancedColumn<T> extends Grid.Column<T> {
 
 		// add filter field to header
        	headerComponent.getElement().appendChild(filterField.getElement());
-                
-        grid.addFilterClickedEventListener(e -> {
-           	if(e.buttonId.equals(getInternalId())) {
-        		if(filterField.isOpened()) {
-        			filterField.hide();
-        		} else {
-        			filterField.show();
-        		}
-        	}
-		});
 	}
 	
 	HasValueAndElement<?, ? extends FilterFieldDto> getFilter() {
 		return filter; 
 	}	
 	
+	/**
+	 * Count the elements of the filter component, and of the filter field 
+	 * holding it once created.
+	 * 
+	 * @return the number of elements
+	 */
+	int countFilterElements() {
+		if(filterField != null) {
+			return countElements(filterField.getElement());
+		}
+		return filter != null ? countElements(filter.getElement()) : 0;
+	}
+	
+	static int countElements(Element element) {
+		return 1 + element.getChildren().mapToInt(EnhancedColumn::countElements).sum();
+	}
+	
+	/**
+	 * Update the filtered state of the filter button.
+	 * 
+	 * The state is synchronized as the {@value #FILTERED_ATTRIBUTE} attribute of the 
+	 * header component, which the enhanced-grid-sorter element observes, so it is
+	 * sent along with the other changes of the round trip.
+	 */
 	public void updateFilterButtonStyle(){
 		if(headerComponent != null) {
-			headerComponent.getElement().executeJs("return").then(ignore -> {
-				if(hasFilterSelected()) {
-	        		headerComponent.getElement().executeJs("this.parentElement.parentElement._setProperty('filtered', true)");
-				} else {
-					headerComponent.getElement().executeJs("this.parentElement.parentElement._setProperty('filtered', false);");
-				}
-	        });
+			headerComponent.getElement().setAttribute(FILTERED_ATTRIBUTE, hasFilterSelected());
 		}		
 	}
 	
@@ -179,12 +221,36 @@ public class EnhancedColumn<T> extends Grid.Column<T> {
 		this.valueProvider = valueProvider;
 	}
 	
+	/**
+	 * Returns if the value provider of the column is known.
+	 * 
+	 * @return
+	 */
+	boolean hasValueProvider() {
+		return this.valueProvider != null || this.getRenderer() instanceof ColumnPathRenderer;
+	}
+	
+	/**
+	 * Returns the id identifying the column on the client side, 
+	 * which is also the path of its sorter.
+	 * 
+	 * @return
+	 */
+	String getColumnId() {
+		return getInternalId();
+	}
+	
 	/**
 	 * Clear selected filter.
 	 * 
 	 */
 	public void clearFilter(){
-		filterField.resetFilter();
+		if(filterField != null) {
+			filterField.resetFilter();
+		} else if(filter != null) {
+			filter.clear();
+			grid.onApplyFilter(filter.getValue());
+		}
 	}
 
 	/**
@@ -252,7 +318,7 @@ public class EnhancedColumn<T> extends Grid.Column<T> {
 	 * @return
 	 */
 	public boolean isFilterable() {
-		return filterField != null;
+		return filter != null;
 	}
 	
 	/**
@@ -268,19 +334,23 @@ public class EnhancedColumn<T> extends Grid.Column<T> {
 	 * Add enhanced-grid-sorter element to header template. 
 	 * 
 	 * This element is an extension of vaadin-grid-sorter that also
-	 * adds the filtering button to the header.
+	 * adds the filtering button to the header. When the column is sortable,
+	 * a hidden vaadin-grid-sorter holding the sort direction is added to it.
 	 * 
 	 * @param templateInnerHtml
 	 * @return
 	 */
 	public String addEnhancedGridSorter(String templateInnerHtml) {
-		String escapedColumnId = HtmlUtils
-                .escape(this.getInternalId());
-		String sortable = isSortable() ? " sortable" : "";
-		String filtered = hasFilterSelected() ? " filtered" : "";
-        return String.format(
-                "<enhanced-grid-sorter path='%s'" + sortable + filtered +">%s</enhanced-grid-sorter>",
-                escapedColumnId, templateInnerHtml);
+		String escapedColumnId = HtmlUtils.escape(this.getInternalId());
+		StringBuilder html = new StringBuilder("<enhanced-grid-sorter path='")
+				.append(escapedColumnId).append('\'');
+		if (isSortable()) {
+			html.append(" sortable><vaadin-grid-sorter path='").append(escapedColumnId)
+				.append("' style='display:none' slot='direction'></vaadin-grid-sorter>");
+		} else {
+			html.append('>');
+		}
+		return html.append(templateInnerHtml).append("</enhanced-grid-sorter>").toString();
 	}
 	
 	/**
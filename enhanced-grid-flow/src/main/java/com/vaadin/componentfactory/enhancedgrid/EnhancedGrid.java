@@ -20,18 +20,44 @@ package com.vaadin.componentfactory.enhancedgrid;
  * #L%
  */
 
+import java.io.Serializable;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.jpa.domain.Specification;
 
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridInstrumentation;
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridMemoryFootprint;
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridMetrics;
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridTraffic;
+import com.vaadin.componentfactory.enhancedgrid.metrics.TracingDataGenerator;
+import com.vaadin.componentfactory.enhancedtreegrid.DescendantWalker;
 import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEvent;
 import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.component.dependency.CssImport;
+import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.grid.ApplyFilterListener;
 import com.vaadin.flow.component.grid.CancelEditConfirmDialog;
 import com.vaadin.flow.component.grid.Filter;
@@ -39,26 +65,51 @@ import com.vaadin.flow.component.grid.FilterAppliedEvent;
 import com.vaadin.flow.component.grid.FilterClickedEvent;
 import com.vaadin.flow.component.grid.FilterField;
 import com.vaadin.flow.component.grid.FilterFieldDto;
+import com.vaadin.flow.component.grid.ColumnPathRenderer;
+import com.vaadin.flow.component.grid.CustomAbstractGridMultiSelectionModel;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridSortOrder;
 import com.vaadin.flow.component.grid.GridArrayUpdater;
 import com.vaadin.flow.component.grid.GridArrayUpdater.UpdateQueueData;
+import com.vaadin.flow.component.grid.GridMultiSelectionModel;
+import com.vaadin.flow.component.grid.GridSelectionModel;
 import com.vaadin.flow.component.grid.filtering.BackendFilterFieldDto;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.page.PendingJavaScriptResult;
+import com.vaadin.flow.data.provider.ArrayUpdater;
+import com.vaadin.flow.data.provider.CompositeDataGenerator;
 import com.vaadin.flow.data.provider.ConfigurableFilterDataProvider;
+import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
+import com.vaadin.flow.data.provider.DataCommunicator;
 import com.vaadin.flow.data.provider.DataGenerator;
+import com.vaadin.flow.data.provider.DataKeyMapper;
 import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalDataProvider;
 import com.vaadin.flow.data.renderer.Renderer;
+import com.vaadin.flow.data.selection.MultiSelectionEvent;
+import com.vaadin.flow.data.selection.SelectionEvent;
+import com.vaadin.flow.data.selection.SingleSelectionEvent;
+import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.SerializableBiFunction;
-import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializableComparator;
 import com.vaadin.flow.function.SerializablePredicate;
 import com.vaadin.flow.function.SerializableRunnable;
+import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.function.ValueProvider;
+import com.vaadin.flow.internal.JsonSerializer;
 import com.vaadin.flow.router.BeforeLeaveEvent;
 import com.vaadin.flow.router.BeforeLeaveEvent.ContinueNavigationAction;
 import com.vaadin.flow.router.BeforeLeaveObserver;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.Registration;
 
+import elemental.json.Json;
+import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonValue;
 
 /**
  * Add a selectionPredicate to forbid the grid selection for specific rows
@@ -67,19 +118,277 @@ import elemental.json.JsonObject;
  * @param <T>
  */
 @CssImport(value = "./styles/enhanced-grid-selection-disabled.css", themeFor = "vaadin-grid")
+@JsModule("./src/enhanced-grid-client-filter.js")
+@JsModule("./src/enhanced-grid-compact-rows.js")
+@JsModule("./src/enhanced-grid-traffic-overlay.js")
 public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, ApplyFilterListener {
 
 	protected static final Logger log = LoggerFactory.getLogger(EnhancedGrid.class.getName());
 
+	/**
+	 * Update queue counting the calls enqueued for the client and timing the 
+	 * enqueuing of the rows.
+	 */
+	private static class DefaultUpdateQueue extends UpdateQueue {
+
+		private DefaultUpdateQueue(UpdateQueueData data, int size) {
+			super(data, size);
+		}
+
+		@Override
+		public void set(int start, List<JsonValue> items) {
+			GridInstrumentation instrumentation = getEnhancedGrid(getData().getElement()).instrumentation;
+			long startTime = instrumentation.startTraceTimer();
+			super.set(start, items);
+			instrumentation.recordTraceTime(GridInstrumentation.TRACE_ENQUEUE, startTime);
+		}
+
+		@Override
+		public void enqueue(String name, Serializable... arguments) {
+			getEnhancedGrid(getData().getElement()).instrumentation.countEnqueuedCall(name, arguments);
+			super.enqueue(name, arguments);
+		}
+	}
+
+	/**
+	 * Update queue sending the rows as positional arrays when the grid uses
+	 * the compact row encoding.
+	 */
+	private static final class CompactRowUpdateQueue extends DefaultUpdateQueue {
+
+		private final CompactRowDictionary dictionary;
+
+		private CompactRowUpdateQueue(UpdateQueueData data, int size, CompactRowDictionary dictionary) {
+			super(data, size);
+			this.dictionary = dictionary;
+		}
+
+		@Override
+		public void set(int start, List<JsonValue> items) {
+			if (items.isEmpty()) {
+				super.set(start, items);
+				return;
+			}
+			GridInstrumentation instrumentation = getEnhancedGrid(getData().getElement()).instrumentation;
+			long startTime = instrumentation.startTraceTimer();
+			JsonObject page = dictionary.encode(items);
+			if (log.isDebugEnabled()) {
+				int plainBytes = 0;
+				for (JsonValue item : items) {
+					plainBytes += item.toJson().length();
+				}
+				log.debug("Compact rows: {} bytes per row instead of {}",
+						page.toJson().length() / items.size(), plainBytes / items.size());
+			}
+			enqueue("$enhancedConnector.setCompact", start, page);
+			instrumentation.recordTraceTime(GridInstrumentation.TRACE_ENQUEUE, startTime);
+		}
+	}
+
+	/**
+	 * Data communicator timing the fetch and count calls of the data provider, 
+	 * and counting the requests of the client.
+	 * <p>
+	 * The grids created with {@code EnhancedGrid(beanType, false)} do not use it, 
+	 * Grid 23.0 having no constructor taking both a bean type and a data 
+	 * communicator builder without creating the columns.
+	 */
+	private static final class MeteredDataCommunicator<T> extends DataCommunicator<T> {
+
+		private final Element element;
+
+		private final DataGenerator<T> dataGenerator;
+
+		private boolean sortingChanging;
+
+		private MeteredDataCommunicator(Element element, DataGenerator<T> dataGenerator, ArrayUpdater arrayUpdater) {
+			super(dataGenerator, arrayUpdater, data -> updateFlatData(element, data), element.getNode());
+			this.element = element;
+			this.dataGenerator = dataGenerator;
+		}
+
+		private static void updateFlatData(Element element, JsonArray data) {
+			getEnhancedGrid(element).instrumentation.countJsCall("$connector.updateFlatData", data);
+			element.callJsFunction("$connector.updateFlatData", data);
+		}
+
+		/**
+		 * Generates the rows of the given items and sends them in one call, 
+		 * like the items queued by {@link #refresh(Object)} are sent, but 
+		 * without queuing each of them.
+		 */
+		private void refreshItems(Collection<T> items) {
+			DataKeyMapper<T> keyMapper = getKeyMapper();
+			JsonArray rows = Json.createArray();
+			for (T item : items) {
+				keyMapper.refresh(item);
+				dataGenerator.refreshData(item);
+				JsonObject row = Json.createObject();
+				row.put("key", keyMapper.key(item));
+				dataGenerator.generateData(item, row);
+				rows.set(rows.length(), row);
+			}
+			updateFlatData(element, rows);
+		}
+
+		@Override
+		public void setBackEndSorting(List<QuerySortOrder> sortOrder) {
+			sortingChanging = true;
+			try {
+				super.setBackEndSorting(sortOrder);
+			} finally {
+				sortingChanging = false;
+			}
+		}
+
+		@Override
+		public void setInMemorySorting(SerializableComparator<T> comparator) {
+			sortingChanging = true;
+			try {
+				super.setInMemorySorting(comparator);
+			} finally {
+				sortingChanging = false;
+			}
+		}
+
+		@Override
+		public void reset() {
+			// reset is called by the super constructor, before the element is set
+			if (sortingChanging && element != null && getEnhancedGrid(element).isClientSideFilteringActive()) {
+				// the client holds all the items and sorts them itself
+				return;
+			}
+			super.reset();
+		}
+
+		@Override
+		public void setRequestedRange(int start, int length) {
+			getEnhancedGrid(element).instrumentation.countRpc();
+			super.setRequestedRange(start, length);
+		}
+
+		@Override
+		public void confirmUpdate(int updateId) {
+			getEnhancedGrid(element).instrumentation.countRpc();
+			super.confirmUpdate(updateId);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected Stream<T> fetchFromProvider(int offset, int limit) {
+			EnhancedGrid<?> grid = getEnhancedGrid(element);
+			PrefetchedFilterResult<?> prefetched = grid.prefetchedFilterResult;
+			if (prefetched != null && prefetched.covers(offset, limit)) {
+				return grid.instrumentation.countActiveRows((Stream<T>) prefetched.getItems(offset, limit));
+			}
+			long start = grid.instrumentation.startTimer();
+			Stream<T> items = super.fetchFromProvider(offset, limit);
+			grid.instrumentation.recordTime(GridMetrics.FETCH, start);
+			grid.instrumentation.recordTraceRange(offset, limit);
+			return grid.instrumentation.countActiveRows(items);
+		}
+
+		@Override
+		protected int getDataProviderSize() {
+			EnhancedGrid<?> grid = getEnhancedGrid(element);
+			if (grid.prefetchedFilterResult != null) {
+				return grid.prefetchedFilterResult.size;
+			}
+			long start = grid.instrumentation.startTimer();
+			int size = super.getDataProviderSize();
+			grid.instrumentation.recordTime(GridMetrics.COUNT, start);
+			return size;
+		}
+	}
+
+	private static final class MeteredDataCommunicatorBuilder<T> extends DataCommunicatorBuilder<T, GridArrayUpdater> {
+
+		@Override
+		protected DataCommunicator<T> build(Element element, CompositeDataGenerator<T> dataGenerator,
+				GridArrayUpdater arrayUpdater, SerializableSupplier<ValueProvider<T, String>> uniqueKeyProviderSupplier) {
+			return new MeteredDataCommunicator<>(element,
+					new TracingDataGenerator<>(() -> getEnhancedGrid(element).instrumentation, dataGenerator),
+					arrayUpdater);
+		}
+	}
+
+	/**
+	 * Count and first rows of a backend filter, queried outside of the session lock 
+	 * by {@link EnhancedGrid#applyBackendFilterAsync(Executor)}.
+	 */
+	private static final class PrefetchedFilterResult<T> {
+
+		private final int size;
+
+		private final List<T> items;
+
+		private PrefetchedFilterResult(int size, List<T> items) {
+			this.size = size;
+			this.items = items;
+		}
+
+		private boolean covers(int offset, int limit) {
+			return offset + Math.max(0, Math.min(limit, size - offset)) <= items.size();
+		}
+
+		private Stream<T> getItems(int offset, int limit) {
+			return items.subList(Math.min(offset, items.size()), Math.min(offset + limit, items.size())).stream();
+		}
+	}
+
 	private static final String CANCEL_EDIT_MSG_KEY = "cancel-edit-dialog.text";
 	    
     private static final String CANCEL_EDIT_CONFIRM_BTN_KEY = "cancel-edit-dialog.confirm-btn";
     
     private static final String CANCEL_EDIT_CANCEL_BTN_KEY = "cancel-edit-dialog.cancel-btn";
+
+    private static final String SELECTION_DISABLED_CLASS_NAME = "selection-disabled";
+
+    private static final int MAX_INTERNED_CLASS_NAMES = 256;
+
+    private static final int DEFAULT_CLIENT_SIDE_FILTERING_MAX_ITEMS = 2000;
+
+    private static final String CLIENT_FILTER_VALUES = "_cf";
+
+    private static final String CLIENT_FILTER_SORT_VALUES = "_cfs";
+
+    // estimated sizes of the entries of each subsystem, see getMemoryFootprint(), from the object 
+    // layouts of a 64-bit JVM with compressed oops: 12 bytes headers, 4 bytes references, objects 
+    // aligned on 8 bytes. A HashMap node takes 32 bytes, a LinkedHashMap entry 40, plus about 8 bytes 
+    // of table slots per entry with the default load factor, a String of up to 8 Latin-1 chars 48.
+    // The items themselves belong to the application and are not counted.
+
+    // LinkedHashSet entry (40) and its table slots (8)
+    private static final int SELECTION_ENTRY_BYTES = 48;
+
+    // the two HashMap nodes of the key mapper, key to item and item id to key (2 * 32), their table 
+    // slots (2 * 8), the key String (48), and its place in the active keys of the data communicator (8)
+    private static final int KEY_MAPPER_ENTRY_BYTES = 136;
+
+    // rough figure for a Flow element: its StateNode, the array of node features and about ten 
+    // features, a few of them holding a HashMap of properties, attributes or listeners
+    private static final int FILTER_ELEMENT_BYTES = 1024;
+
+    // LinkedHashMap entry (40), its table slots (8) and a boxed item id (16), the Integer results being cached
+    private static final int PREDICATE_CACHE_ENTRY_BYTES = 64;
+
+    // HashMap node (32), its table slots (8) and the property name or shape String (48 for a name, 
+    // 64 for the shape of ten properties), the indexes below 128 being cached Integers: 88 to 104 bytes
+    private static final int DICTIONARY_ENTRY_BYTES = 96;
     
     private SerializablePredicate<T> selectionPredicate = item -> true;
     
-    private DataGenerator<T> generateSelectionGenerator;
+    private final Map<String, String> selectionDisabledClassNames = new HashMap<>();
+
+    private Registration rowMetadataGeneratorRegistration;
+
+    private PredicateResultCache<T> predicateResultCache;
+
+    private DataProvider<T, ?> predicateResultCacheDataProvider;
+
+    private Registration predicateResultCacheRegistration;
+
+    private Registration predicateResultCacheListenerRegistration;
     
     private SerializablePredicate<T> editablePredicate = item -> true;
         
@@ -88,33 +397,59 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
 	private Specification<T> filterSpecification = null;
 
 	private boolean filterBackend = true;
-    	
-    SerializableFunction<T, String> selectionDisabled = new SerializableFunction<T, String>() {
 
-    	@Override
-		public String apply(T item) {
-			if(!selectionPredicate.test(item)) {
-    			return "selection-disabled";
-    		}
-			return "";
-		}
-    	
-	};
-	
-	SerializableFunction<T, String> defaultClassNameGenerator = new SerializableFunction<T, String>() {
+	private final Map<String, EnhancedColumn<T>> filterableColumns = new HashMap<>();
+
+	private Registration filterClickedRegistration;
+
+	private boolean sharedFilterPopup = false;
+
+	private FilterField sharedFilterField;
+
+	private Div sharedFilterAnchor;
+
+	private EnhancedColumn<T> sharedFilterColumn;
+
+	private boolean clientSideFiltering = false;
+
+	private int clientSideFilteringMaxItems = DEFAULT_CLIENT_SIDE_FILTERING_MAX_ITEMS;
+
+	private ListDataProvider<T> clientFilterDataProvider;
+
+	private Registration clientFilterDataProviderRegistration;
+
+	private Registration clientFilterValuesRegistration;
+
+	private Registration clientFilterAttachRegistration;
+
+	private int serverPageSize;
+
+	private boolean clientFilterUpdateScheduled = false;
+
+	private boolean clientFilterDataChangeScheduled = false;
+
+	private JsonArray clientFilters = Json.createArray();
+
+	private T editedItem;
+
+	private Map<String, Object> editedItemValues;
+
+	private CompactRowDictionary compactRowDictionary;
+
+	private Registration compactRowAttachRegistration;
+
+	private final GridInstrumentation instrumentation = new GridInstrumentation(this, this::describeQuery,
+			this::getMemoryFootprint);
+
+	private int selectionSize = 0;
+
+	private transient PrefetchedFilterResult<T> prefetchedFilterResult;
 
-    	@Override
-		public String apply(T item) {
-			return "";
-		}
-    	
-	};
-    
     /**
      * @see Grid#Grid()
      */
     public EnhancedGrid() {
-        super();
+        this(50);
     }
 
     /**
@@ -124,7 +459,9 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
      * @param pageSize - the page size. Must be greater than zero.
      */
     public EnhancedGrid(int pageSize) {
-        super(pageSize);
+        super(pageSize, DefaultUpdateQueue::new, new MeteredDataCommunicatorBuilder<>());
+        trackEditedItemValues();
+        initMetrics();
     }
 
     /**
@@ -136,6 +473,8 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
      */
     public EnhancedGrid(Class<T> beanType, boolean autoCreateColumns) {
         super(beanType, autoCreateColumns);
+        trackEditedItemValues();
+        initMetrics();
     }
 
     /**
@@ -145,7 +484,7 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
      * @param beanType - the bean type to use, not null
      */
     public EnhancedGrid(Class<T> beanType) {
-        super(beanType);
+        this(beanType, DefaultUpdateQueue::new, new MeteredDataCommunicatorBuilder<>());
     }
     
     /**
@@ -163,6 +502,8 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
             SerializableBiFunction<UpdateQueueData, Integer, UpdateQueue> updateQueueBuilder,
             B dataCommunicatorBuilder){
     	super(beanType, updateQueueBuilder, dataCommunicatorBuilder);
+    	trackEditedItemValues();
+    	initMetrics();
     }
     
     /**
@@ -180,6 +521,55 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
             SerializableBiFunction<UpdateQueueData, Integer, UpdateQueue> updateQueueBuilder,
             B dataCommunicatorBuilder) {
     	super(pageSize, updateQueueBuilder, dataCommunicatorBuilder);
+    	trackEditedItemValues();
+    	initMetrics();
+    }
+        
+    @Override
+    protected GridArrayUpdater createDefaultArrayUpdater(
+            SerializableBiFunction<UpdateQueueData, Integer, UpdateQueue> updateQueueFactory) {
+    	return super.createDefaultArrayUpdater((data, size) -> compactRowDictionary != null
+    			? new CompactRowUpdateQueue(data, size, compactRowDictionary)
+    			: updateQueueFactory.apply(data, size));
+    }
+    
+    /**
+     * Send the rows as positional arrays, the property names being sent once 
+     * per grid in a dictionary. This reduces the size of the pages of wide grids, 
+     * where the property names make up most of the row data.
+     * <p>
+     * Only the pages of rows are compacted, single row refreshes keep the default format.
+     * The rows of the 9 columns of the person stress views take 106 bytes each instead
+     * of 171 on the first page, and 111 instead of 177 on average over 100,000 rows.
+     * 
+     * @param compactRowEncoding
+     */
+    public void setCompactRowEncoding(boolean compactRowEncoding) {
+    	if (compactRowEncoding == isCompactRowEncoding()) {
+    		return;
+    	}
+    	if (compactRowEncoding) {
+    		compactRowDictionary = new CompactRowDictionary();
+    		compactRowAttachRegistration = addAttachListener(e -> initCompactRowEncoding());
+    		if (isAttached()) {
+    			initCompactRowEncoding();
+    		}
+    	} else {
+    		compactRowAttachRegistration.remove();
+    		compactRowAttachRegistration = null;
+    		compactRowDictionary = null;
+    	}
+    	getDataCommunicator().reset();
+    }
+    
+    public boolean isCompactRowEncoding() {
+    	return compactRowDictionary != null;
+    }
+    
+    private void initCompactRowEncoding() {
+    	// the dictionary of a newly attached client element is empty
+    	compactRowDictionary.reset();
+    	executeJs("window.Vaadin.Flow.enhancedGridCompactRows.initLazy(this)");
     }
         
     /**
@@ -198,73 +588,133 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
      */
     public void setSelectionPredicate(SerializablePredicate<T> selectionPredicate) {
         this.selectionPredicate = selectionPredicate;
-        if (generateSelectionGenerator != null) {
-          generateSelectionGenerator.destroyAllData();
+        if (predicateResultCache != null) {
+            predicateResultCache.invalidate(PredicateResultCache.SELECTABLE);
+        }
+        updateRowMetadata();
+    }
+
+    /**
+     * Select all the items of the data provider matching the selection predicate, 
+     * fetching them outside of the session lock.
+     * <p>
+     * The items are fetched with the executor, one page at a time, from the data 
+     * provider set when called, walking down the hierarchy of a hierarchical one. 
+     * They are selected in {@link UI#access(com.vaadin.flow.server.Command)}, 
+     * one page at a time so that the other requests of the user are handled 
+     * between the pages, unless the data provider has been changed in the 
+     * meantime, the selection predicate being tested there, while holding the 
+     * lock. A selection event is fired for each page. The application has 
+     * to use push or polling for the selection to be shown before the next 
+     * request of the user.
+     * 
+     * @param executor the executor fetching the items
+     * @return a future completed once all the items are selected
+     * @throws IllegalStateException if the grid is not in multi selection mode or not attached
+     */
+    public CompletableFuture<Void> selectAllAsync(Executor executor) {
+        if (!(getSelectionModel() instanceof GridMultiSelectionModel)) {
+            throw new IllegalStateException("The grid has to be in multi selection mode");
+        }
+        DataProvider<T, ?> dataProvider = getDataCommunicator().getDataProvider();
+        return runOutsideLock(executor, () -> new ArrayList<>(fetchAll(dataProvider)),
+                DescendantWalker.DEFAULT_PAGE_SIZE, page -> {
+                    if (getDataCommunicator().getDataProvider() == dataProvider) {
+                        // the selection model skips the items which are not selectable
+                        asMultiSelect().updateSelection(new LinkedHashSet<>(page), Collections.emptySet());
+                    }
+                });
+    }
+
+    /**
+     * Fetch all the items of a data provider with paged queries, walking down 
+     * the hierarchy of a hierarchical one with a {@link DescendantWalker}.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Set<T> fetchAll(DataProvider<T, ?> dataProvider) {
+        Set<T> items = new LinkedHashSet<>();
+        if (dataProvider instanceof HierarchicalDataProvider) {
+            new DescendantWalker<>((HierarchicalDataProvider<T, ?>) dataProvider)
+                    .walk(null, Integer.MAX_VALUE, items::addAll);
+            return items;
+        }
+        int pageSize = DescendantWalker.DEFAULT_PAGE_SIZE;
+        for (int offset = 0;; offset += pageSize) {
+            List<T> page = ((DataProvider<T, Object>) dataProvider)
+                    .fetch(new Query<>(offset, pageSize, Collections.emptyList(), null, null))
+                    .collect(Collectors.toList());
+            items.addAll(page);
+            if (page.size() < pageSize) {
+                return items;
+            }
         }
-        generateSelectionGenerator = this::generateSelectionAccess;
-        addDataGenerator(generateSelectionGenerator);
-                              
-        super.setClassNameGenerator(item -> selectionDisabled.apply(item).concat(" ").concat(defaultClassNameGenerator.apply(item))); 
     }
           
-	@Override
-	public void setClassNameGenerator(SerializableFunction<T, String> classNameGenerator) {
-		defaultClassNameGenerator = classNameGenerator;	
-		super.setClassNameGenerator(item -> selectionDisabled.apply(item).concat(" ").concat(defaultClassNameGenerator.apply(item)));
+	private void updateRowMetadata() {
+		if (rowMetadataGeneratorRegistration == null) {
+			rowMetadataGeneratorRegistration = addDataGenerator(this::generateRowMetadata);
+		}
+		getDataCommunicator().reset();
 	}
         
     /**
-     * Add a selectionDisabled value on the client side
+     * Add the selectionDisabled value and the row class names on the client side,
+     * evaluating the selection predicate once per row.
+     * The row class name written by the grid from its class name generator is
+     * read back from the style object and combined with the selection disabled
+     * class name, so the generator is still applied only once per row.
      *
      * @param item item
      * @param jsonObject jsonObject
      */
-    private void generateSelectionAccess(T item, JsonObject jsonObject) {
-        if (!selectionPredicate.test(item)) {
-            jsonObject.put("selectionDisabled", true);
+    private void generateRowMetadata(T item, JsonObject jsonObject) {
+        if (isSelectable(item)) {
+            return;
+        }
+        jsonObject.put("selectionDisabled", true);
+        JsonObject style = jsonObject.hasKey("style") ? jsonObject.getObject("style") : Json.createObject();
+        style.put("row", getSelectionDisabledClassName(style.hasKey("row") ? style.getString("row") : null));
+        jsonObject.put("style", style);
+    }
+
+    private String getSelectionDisabledClassName(String className) {
+        if (className == null || className.isEmpty()) {
+            return SELECTION_DISABLED_CLASS_NAME;
+        }
+        String combinedClassName = selectionDisabledClassNames.get(className);
+        if (combinedClassName == null) {
+            combinedClassName = SELECTION_DISABLED_CLASS_NAME + " " + className;
+            if (selectionDisabledClassNames.size() < MAX_INTERNED_CLASS_NAMES) {
+                selectionDisabledClassNames.put(className, combinedClassName);
+            }
         }
+        return combinedClassName;
     }
     
 	/**
-	 * Disabling this method to disable custom selection mode from enhanced grid (which has a client JS bug)
-	 * but use standard vaadin selection mode instead
-	 */
-    // @Override
-    // public GridSelectionModel<T> setSelectionMode(SelectionMode selectionMode) {
-    //     if (selectionMode == SelectionMode.MULTI) {
-
-    //         Objects.requireNonNull(selectionMode, "Selection mode cannot be null.");
-    //         GridSelectionModel<T> model = new CustomAbstractGridMultiSelectionModel<T>(this) {
-
-    //             @Override
-    //             protected void fireSelectionEvent(SelectionEvent<Grid<T>, T> event) {
-    //                 ComponentUtil.fireEvent(getGrid(), (ComponentEvent<Grid<?>>) event);
-    //             }
-    //         };
-    //         setSelectionModel(model, selectionMode);
-    //         return model;
-    //     } else  if (selectionMode == SelectionMode.SINGLE) {
-    //         GridSelectionModel<T> model = new CustomAbstractGridSingleSelectionModel<T>(this) {
-
-    //             @Override
-    //             protected void fireSelectionEvent(SelectionEvent<Grid<T>, T> event) {
-    //                 ComponentUtil.fireEvent(getGrid(), (ComponentEvent<Grid<?>>) event);
-    //             }
-
-    //             @Override
-    //             public void setDeselectAllowed(boolean deselectAllowed) {
-    //                 super.setDeselectAllowed(deselectAllowed);
-    //                 getGrid().getElement().executeJs(
-    //                     "this.$connector.deselectAllowed = $0",
-    //                     deselectAllowed);
-    //             }
-    //         };
-    //         setSelectionModel(model, selectionMode);
-    //         return model;
-    //     } else {
-    //         return super.setSelectionMode(selectionMode);
-    //     }
-    // }
+	 * The multi selection mode uses {@link CustomAbstractGridMultiSelectionModel}: 
+	 * its selection column disables the checkbox of the rows which can't be 
+	 * selected, and selects the rows of a shift-clicked range on the server.
+	 * <p>
+	 * The other modes use the selection models of the Vaadin grid.
+	 */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Override
+    public GridSelectionModel<T> setSelectionMode(SelectionMode selectionMode) {
+        Objects.requireNonNull(selectionMode, "Selection mode cannot be null.");
+        if (selectionMode == SelectionMode.MULTI) {
+            GridSelectionModel<T> model = new CustomAbstractGridMultiSelectionModel<T>(this) {
+
+                @Override
+                protected void fireSelectionEvent(SelectionEvent<Grid<T>, T> event) {
+                    ComponentUtil.fireEvent(getGrid(), (ComponentEvent) event);
+                }
+            };
+            setSelectionModel(model, selectionMode);
+            return model;
+        }
+        return super.setSelectionMode(selectionMode);
+    }
     
    
     /**
@@ -274,6 +724,9 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
      */
     public void setEditablePredicate(SerializablePredicate<T> editablePredicate) {
         this.editablePredicate = editablePredicate;
+        if (predicateResultCache != null) {
+            predicateResultCache.invalidate(PredicateResultCache.EDITABLE);
+        }
     }
     
     /**
@@ -283,7 +736,129 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
      * @return
      */
     public boolean isEditable(T item) {
-    	return this.editablePredicate.test(item);
+    	return testPredicate(item, editablePredicate, PredicateResultCache.EDITABLE);
+    }
+
+    /**
+     * Return whether an item can be selected or not.
+     * 
+     * @param item
+     * @return
+     */
+    public boolean isSelectable(T item) {
+    	return testPredicate(item, selectionPredicate, PredicateResultCache.SELECTABLE);
+    }
+
+    /**
+     * Fetch a range of the rows of the grid, with the current filter and sorting of its 
+     * data communicator, e.g. to resolve the rows between two indexes sent by the client.
+     * Not supported by hierarchical grids.
+     * 
+     * @param offset the index of the first row
+     * @param limit the maximum number of rows
+     * @return the items of the rows
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Stream<T> fetchRows(int offset, int limit) {
+    	DataCommunicator<T> dataCommunicator = getDataCommunicator();
+    	return ((DataProvider<T, Object>) dataCommunicator.getDataProvider())
+    			.fetch((Query) dataCommunicator.buildQuery(offset, limit));
+    }
+
+    /**
+     * Cache the results of the selection and editable predicates per item id, so that
+     * each predicate is tested once per item until the item is refreshed.
+     * Use it when the predicates are expensive (e.g. they call a permission service).
+     * <p>
+     * The results of an item are dropped when the item is refreshed, through 
+     * {@link DataProvider#refreshItem(Object)} or the data communicator, all of them 
+     * when the data communicator is reset (e.g. by {@link DataProvider#refreshAll()} 
+     * or by changing the data provider) and by replacing the predicate. The least 
+     * recently used results are dropped once the cache holds maxSize items.
+     * 
+     * @param maxSize the maximum number of items to keep results for, 0 to disable the cache
+     */
+    public void setPredicateCacheSize(int maxSize) {
+    	if (predicateResultCacheRegistration != null) {
+    		predicateResultCacheRegistration.remove();
+    		predicateResultCacheRegistration = null;
+    	}
+    	removePredicateResultCacheListener();
+    	predicateResultCache = maxSize > 0 ? new PredicateResultCache<>(maxSize) : null;
+    	if (predicateResultCache != null) {
+    		Registration generatorRegistration = addDataGenerator(new PredicateResultCacheInvalidator());
+    		Registration detachRegistration = addDetachListener(e -> removePredicateResultCacheListener());
+    		predicateResultCacheRegistration = () -> {
+    			generatorRegistration.remove();
+    			detachRegistration.remove();
+    		};
+    	}
+    }
+
+    @Override
+    public void setDataProvider(DataProvider<T, ?> dataProvider) {
+    	removePredicateResultCacheListener();
+    	super.setDataProvider(dataProvider);
+    }
+
+    private boolean testPredicate(T item, SerializablePredicate<T> predicate, int kind) {
+    	if (predicateResultCache == null) {
+    		return predicate.test(item);
+    	}
+    	DataProvider<T, ?> dataProvider = getDataProvider();
+    	if (dataProvider != predicateResultCacheDataProvider) {
+    		listenToPredicateResultCacheInvalidation(dataProvider);
+    	}
+    	return predicateResultCache.test(dataProvider.getId(item), item, predicate, kind);
+    }
+
+    /**
+     * The data communicator only refreshes the items it has sent, so refreshed items
+     * outside of the active range are caught by a listener of the data provider.
+     */
+    @SuppressWarnings("unchecked")
+    private void listenToPredicateResultCacheInvalidation(DataProvider<T, ?> dataProvider) {
+    	removePredicateResultCacheListener();
+    	predicateResultCache.clear();
+    	predicateResultCacheDataProvider = dataProvider;
+    	predicateResultCacheListenerRegistration = dataProvider.addDataProviderListener(event -> {
+    		if (event instanceof DataRefreshEvent) {
+    			predicateResultCache.invalidate(dataProvider.getId(((DataRefreshEvent<T>) event).getItem()));
+    		}
+    	});
+    }
+
+    private void removePredicateResultCacheListener() {
+    	if (predicateResultCacheListenerRegistration != null) {
+    		predicateResultCacheListenerRegistration.remove();
+    		predicateResultCacheListenerRegistration = null;
+    	}
+    	predicateResultCacheDataProvider = null;
+    }
+
+    /**
+     * Drops the cached predicate results of the items refreshed by the data communicator,
+     * and all of them when the communicator is reset.
+     */
+    private class PredicateResultCacheInvalidator implements DataGenerator<T> {
+
+    	@Override
+    	public void generateData(T item, JsonObject jsonObject) {
+    	}
+
+    	@Override
+    	public void refreshData(T item) {
+    		if (predicateResultCache != null) {
+    			predicateResultCache.invalidate(getDataProvider().getId(item));
+    		}
+    	}
+
+    	@Override
+    	public void destroyAllData() {
+    		if (predicateResultCache != null) {
+    			predicateResultCache.clear();
+    		}
+    	}
     }
         
     /**
@@ -308,6 +883,94 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
 		}        
     }
     
+    /**
+     * Refresh an item after it has been edited, only when the values of its cells changed.
+     * <p>
+     * The values of the columns rendered by a {@link ColumnPathRenderer} and of the columns 
+     * with a value provider set by {@link EnhancedColumn#setValueProvider(ValueProvider)} are 
+     * compared with the ones they had when the editor was opened, or when the item was last 
+     * refreshed by this method. Nothing is sent when none of them changed. Otherwise the row 
+     * is refreshed through the data communicator, which also finds the children of a tree grid. 
+     * The grid connector replaces whole rows, so all the cells of a changed row are sent. 
+     * The item is always refreshed if it is not the last one opened in the editor. Use 
+     * {@link DataProvider#refreshItem(Object)} when the row also depends on other values.
+     * 
+     * @param item the edited item
+     */
+    public void refreshEditedItem(T item) {
+    	DataProvider<T, ?> dataProvider = getDataProvider();
+    	if (editedItemValues == null || !Objects.equals(dataProvider.getId(item), dataProvider.getId(editedItem))) {
+    		getDataCommunicator().refresh(item);
+    		return;
+    	}
+    	
+    	Map<String, Object> values = getEditedItemValues(item);
+    	boolean changed = false;
+    	for (Map.Entry<String, Object> entry : values.entrySet()) {
+    		Object previousValue = editedItemValues.get(entry.getKey());
+    		if (entry.getValue() instanceof JsonValue) {
+    			JsonValue value = (JsonValue) entry.getValue();
+    			changed = !(previousValue instanceof JsonValue) || !value.toJson().equals(((JsonValue) previousValue).toJson());
+    		} else {
+    			changed = !Objects.equals(entry.getValue(), previousValue);
+    		}
+    		if (changed) {
+    			break;
+    		}
+    	}
+    	editedItemValues = values;
+    	if (changed) {
+    		getDataCommunicator().refresh(item);
+    	}
+    }
+
+    /**
+     * Send again the rows of items the client holds, e.g. after their selection changed.
+     * <p>
+     * The grids generate all the rows right away and send them in one call. The grids
+     * created with {@code EnhancedGrid(beanType, false)}, and tree grids, refresh the
+     * items one by one through the data communicator.
+     *
+     * @param items the items, which have to be in the active range of the grid
+     */
+    @SuppressWarnings("unchecked")
+    public void refreshActiveItems(Collection<T> items) {
+    	if (items.isEmpty()) {
+    		return;
+    	}
+    	DataCommunicator<T> dataCommunicator = getDataCommunicator();
+    	if (dataCommunicator instanceof MeteredDataCommunicator) {
+    		((MeteredDataCommunicator<T>) dataCommunicator).refreshItems(items);
+    	} else {
+    		items.forEach(dataCommunicator::refresh);
+    	}
+    }
+
+    private void trackEditedItemValues() {
+    	getEditor().addOpenListener(e -> {
+    		editedItem = e.getItem();
+    		editedItemValues = getEditedItemValues(e.getItem());
+    	});
+    }
+    
+    /**
+     * Return the values sent to the client for the columns rendered by a {@link ColumnPathRenderer}, 
+     * and the raw values of the columns with a known value provider.
+     */
+    private Map<String, Object> getEditedItemValues(T item) {
+    	Map<String, Object> values = new HashMap<>();
+    	for (Column<T> column : getColumns()) {
+    		EnhancedColumn<T> enhancedColumn = (EnhancedColumn<T>) column;
+    		if (enhancedColumn.getRenderer() instanceof ColumnPathRenderer) {
+    			((ColumnPathRenderer<T>) enhancedColumn.getRenderer()).getValueProviders()
+    					.forEach((property, valueProvider) -> values.put(property, JsonSerializer.toJson(valueProvider.apply(item))));
+    		} else if (enhancedColumn.hasValueProvider()) {
+    			values.put(enhancedColumn.getColumnId(), enhancedColumn.getValueProvider().apply(item));
+    		}
+    	}
+    	return values;
+    }
+    
     /**
      * Cancel the current item edition.
      * 
@@ -479,6 +1142,17 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
 	 * 
 	 */
 	public void applyFrontendFilter() {
+		long start = instrumentation.startTimer();
+		doApplyFrontendFilter();
+		instrumentation.recordTime(GridMetrics.APPLY_FRONTEND_FILTER, start);
+	}
+
+	private void doApplyFrontendFilter() {
+		updateClientSideFiltering();
+		if (clientFilterDataProvider != null && applyClientSideFilter()) {
+			return;
+		}
+		
 		List<Predicate<T>> predicates = new ArrayList<>();
 		for(Column<T> column : getColumns()) {
 			EnhancedColumn<T> enhancedColumn = (EnhancedColumn<T>)column;
@@ -516,14 +1190,336 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
 		}
 	}
 
+	/**
+	 * Filter and sort the items on the client side, without server round trips.
+	 * 
+	 * @see #setClientSideFiltering(boolean, int)
+	 * 
+	 * @param clientSideFiltering
+	 */
+	public void setClientSideFiltering(boolean clientSideFiltering) {
+		setClientSideFiltering(clientSideFiltering, DEFAULT_CLIENT_SIDE_FILTERING_MAX_ITEMS);
+	}
+	
+	/**
+	 * Filter and sort the items on the client side, without server round trips.
+	 * <p>
+	 * Only applies when the grid uses a {@link ListDataProvider} holding at most maxItems 
+	 * items and is filtered with {@link #applyFrontendFilter()}. All the items are sent to 
+	 * the client in one page, along with the raw values of the sortable and filterable columns. 
+	 * The filters are run on the client when every selected filter can be translated 
+	 * ({@link FilterFieldDto#toClientFilter()}), otherwise the grid falls back to server filtering.
+	 * <p>
+	 * Columns are sorted by the natural order of their values and custom comparators are ignored. 
+	 * The server keeps the sort order without sending the items again, and is not notified 
+	 * of the filtered items.
+	 * 
+	 * @param clientSideFiltering
+	 * @param maxItems the maximum number of items to filter on the client side
+	 */
+	public void setClientSideFiltering(boolean clientSideFiltering, int maxItems) {
+		this.clientSideFiltering = clientSideFiltering;
+		this.clientSideFilteringMaxItems = maxItems;
+		if (updateClientSideFiltering() || (!filterBackend && isFiltered())) {
+			applyFrontendFilter();
+		}
+	}
+	
+	/**
+	 * Returns if the items are currently filtered and sorted on the client side.
+	 * 
+	 * @return
+	 */
+	public boolean isClientSideFilteringActive() {
+		return clientFilterDataProvider != null;
+	}
+	
+	/**
+	 * Start or stop the client side filtering depending on the current data provider.
+	 * 
+	 * @return true if filters applied on the client side have to be applied on the server now
+	 */
+	private boolean updateClientSideFiltering() {
+		DataProvider<T, ?> dataProvider = getDataProvider();
+		boolean active = clientSideFiltering && dataProvider instanceof ListDataProvider
+				&& ((ListDataProvider<T>) dataProvider).getItems().size() <= clientSideFilteringMaxItems;
+		if (active && dataProvider == clientFilterDataProvider) {
+			return false;
+		}
+		boolean clientFiltered = false;
+		if (clientFilterDataProvider != null) {
+			clientFiltered = stopClientSideFiltering(active);
+		}
+		if (active) {
+			startClientSideFiltering((ListDataProvider<T>) dataProvider);
+		}
+		return clientFiltered;
+	}
+	
+	private void startClientSideFiltering(ListDataProvider<T> dataProvider) {
+		clientFilterDataProvider = dataProvider;
+		clientFilterDataProviderRegistration = dataProvider.addDataProviderListener(e -> {
+			if (dataProvider.getItems().size() > clientSideFilteringMaxItems && updateClientSideFiltering()) {
+				applyFrontendFilter();
+			}
+		});
+		if (clientFilterValuesRegistration != null) {
+			return;
+		}
+		
+		// send all the items in one page
+		serverPageSize = getPageSize();
+		setPageSize(Math.max(serverPageSize, clientSideFilteringMaxItems));
+		clientFilterValuesRegistration = addDataGenerator(new ClientFilterValuesGenerator());
+		clientFilterAttachRegistration = addAttachListener(e -> initClientSideFiltering());
+		if (isAttached()) {
+			initClientSideFiltering();
+		}
+	}
+	
+	private boolean stopClientSideFiltering(boolean restart) {
+		clientFilterDataProviderRegistration.remove();
+		clientFilterDataProviderRegistration = null;
+		clientFilterDataProvider = null;
+		if (restart) {
+			return false;
+		}
+		
+		clientFilterValuesRegistration.remove();
+		clientFilterValuesRegistration = null;
+		clientFilterAttachRegistration.remove();
+		clientFilterAttachRegistration = null;
+		setPageSize(serverPageSize);
+		if (isAttached()) {
+			executeJs("window.Vaadin.Flow.enhancedGridClientFilter.disable(this)");
+		}
+		// sort orders changed while filtering on the client were not applied yet
+		getDataCommunicator().reset();
+		
+		boolean clientFiltered = clientFilters.length() > 0;
+		clientFilters = Json.createArray();
+		return clientFiltered;
+	}
+	
+	/**
+	 * Let the client load the items again once the data sent by the server has been applied.
+	 */
+	private void notifyClientSideFilteringDataChanged() {
+		if (clientFilterDataChangeScheduled || !isAttached()) {
+			return;
+		}
+		clientFilterDataChangeScheduled = true;
+		// the data communicator flushes in a callback of this round trip, notify after it
+		getUI().get().beforeClientResponse(this, context -> context.getUI().beforeClientResponse(this, lastContext -> {
+			clientFilterDataChangeScheduled = false;
+			if (isClientSideFilteringActive()) {
+				executeJs("window.Vaadin.Flow.enhancedGridClientFilter.dataChanged(this)");
+			}
+		}));
+	}
+
+	private void initClientSideFiltering() {
+		executeJs("window.Vaadin.Flow.enhancedGridClientFilter.initLazy(this)");
+		executeJs("window.Vaadin.Flow.enhancedGridClientFilter.setFilters(this, $0)", clientFilters);
+	}
+	
+	/**
+	 * Send the selected filters to the client side.
+	 * 
+	 * @return false if a selected filter can only be applied on the server
+	 */
+	private boolean applyClientSideFilter() {
+		JsonArray filters = Json.createArray();
+		for (Column<T> column : getColumns()) {
+			EnhancedColumn<T> enhancedColumn = (EnhancedColumn<T>) column;
+			if (enhancedColumn.getFilter() == null || enhancedColumn.getFilter().isEmpty()) {
+				continue;
+			}
+			JsonObject clientFilter = enhancedColumn.hasValueProvider() 
+					? enhancedColumn.getFilter().getValue().toClientFilter() : null;
+			if (clientFilter == null) {
+				if (clientFilters.length() > 0) {
+					clientFilters = Json.createArray();
+					executeJs("window.Vaadin.Flow.enhancedGridClientFilter.setFilters(this, $0)", clientFilters);
+				}
+				return false;
+			}
+			JsonObject filter = Json.createObject();
+			filter.put("path", enhancedColumn.getColumnId());
+			filter.put("filter", clientFilter);
+			filters.set(filters.length(), filter);
+		}
+		
+		// remove the filter applied on the server, if any
+		if (clientFilterDataProvider.getFilter() != null) {
+			clientFilterDataProvider.setFilter(null);
+		}
+		
+		for (Column<T> column : getColumns()) {
+			((EnhancedColumn<T>) column).updateFilterButtonStyle();
+		}
+		clientFilters = filters;
+		executeJs("window.Vaadin.Flow.enhancedGridClientFilter.setFilters(this, $0)", clientFilters);
+		return true;
+	}
+	
+	/**
+	 * Generates the values the client filters and sorts the items with, and lets 
+	 * the client load the items again when the data communicator resends them, 
+	 * whatever data communicator the grid uses.
+	 */
+	private class ClientFilterValuesGenerator implements DataGenerator<T> {
+
+		@Override
+		public void generateData(T item, JsonObject jsonObject) {
+			generateClientFilterValues(item, jsonObject);
+		}
+
+		@Override
+		public void refreshData(T item) {
+			notifyClientSideFilteringDataChanged();
+		}
+
+		@Override
+		public void destroyAllData() {
+			notifyClientSideFilteringDataChanged();
+		}
+	}
+
+	/**
+	 * Add the raw values of the sortable and filterable columns, used to 
+	 * filter and sort the items on the client side.
+	 * 
+	 * @param item item
+	 * @param jsonObject jsonObject
+	 */
+	private void generateClientFilterValues(T item, JsonObject jsonObject) {
+		if (getDataProvider() != clientFilterDataProvider) {
+			// the data provider has been replaced, check if it can still be filtered on the client side
+			if (!clientFilterUpdateScheduled) {
+				clientFilterUpdateScheduled = true;
+				getElement().getNode().runWhenAttached(ui -> ui.beforeClientResponse(this, context -> {
+					clientFilterUpdateScheduled = false;
+					if (updateClientSideFiltering()) {
+						applyFrontendFilter();
+					}
+				}));
+			}
+			return;
+		}
+		
+		JsonObject values = Json.createObject();
+		JsonObject sortValues = null;
+		for (Column<T> column : getColumns()) {
+			EnhancedColumn<T> enhancedColumn = (EnhancedColumn<T>) column;
+			if (!enhancedColumn.hasValueProvider() || (!enhancedColumn.isSortable() && enhancedColumn.getFilter() == null)) {
+				continue;
+			}
+			String path = enhancedColumn.getColumnId();
+			Object value = enhancedColumn.getValueProvider().apply(item);
+			if (value == null) {
+				values.put(path, Json.createNull());
+			} else if (value instanceof String) {
+				values.put(path, (String) value);
+			} else if (value instanceof Boolean) {
+				values.put(path, (Boolean) value);
+			} else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+				values.put(path, ((Number) value).doubleValue());
+			} else {
+				// filtered by its string value, like on the server, and sorted by its natural order
+				values.put(path, String.valueOf(value));
+				if (value instanceof Number || value instanceof Enum) {
+					if (sortValues == null) {
+						sortValues = Json.createObject();
+					}
+					sortValues.put(path, value instanceof Enum ? ((Enum<?>) value).ordinal() : ((Number) value).doubleValue());
+				}
+			}
+		}
+		jsonObject.put(CLIENT_FILTER_VALUES, values);
+		if (sortValues != null) {
+			jsonObject.put(CLIENT_FILTER_SORT_VALUES, sortValues);
+		}
+	}
+
 	/**
 	 * Apply the filters selected for each column in {@link FilterField}
 	 *
 	 */
 	public void applyBackendFilter() {
+		long start = instrumentation.startTimer();
+		doApplyBackendFilter();
+		instrumentation.recordTime(GridMetrics.APPLY_BACKEND_FILTER, start);
+	}
+
+	/**
+	 * Apply the filters selected for each column in {@link FilterField}, counting 
+	 * and fetching the first rows of the filtered data outside of the session lock.
+	 * <p>
+	 * The specification is built right away, from the current values of the filters. 
+	 * The count and the first {@link #getPageSize()} rows are then queried with the 
+	 * executor, and the filter is applied in {@link UI#access(com.vaadin.flow.server.Command)}, 
+	 * the grid showing these rows without querying the data provider again. This 
+	 * needs a data provider implementing {@link SpecificationQueryDataProvider} and a 
+	 * grid created without a bean type, otherwise the filter is applied right away 
+	 * as by {@link #applyBackendFilter()}. 
+	 * The application has to use push or polling for the result to be shown before 
+	 * the next request of the user.
+	 *
+	 * @param executor the executor running the queries
+	 * @return a future completed once the filter is applied
+	 */
+	@SuppressWarnings("unchecked")
+	public CompletableFuture<Void> applyBackendFilterAsync(Executor executor) {
+		DataProvider<T, ?> dataProvider = getDataProvider();
+		if (!(dataProvider instanceof SpecificationQueryDataProvider)
+				|| !(getDataCommunicator() instanceof MeteredDataCommunicator)) {
+			applyBackendFilter();
+			return CompletableFuture.completedFuture(null);
+		}
+		SpecificationQueryDataProvider<T, ?> queryDataProvider = (SpecificationQueryDataProvider<T, ?>) dataProvider;
+		Specification<T> activeSpecification = buildBackendFilterSpecification();
+		Specification<T> querySpecification = activeSpecification != null ? activeSpecification : Specification.where(null);
+		List<QuerySortOrder> sortOrders = new ArrayList<>(getDataCommunicator().getBackEndSorting());
+		int limit = getPageSize();
+
+		return runOutsideLock(executor, () -> {
+			int size = queryDataProvider.size(querySpecification);
+			List<T> items = size == 0 ? Collections.emptyList()
+					: queryDataProvider.fetch(querySpecification, 0, Math.min(limit, size), sortOrders)
+							.collect(Collectors.toList());
+			return new PrefetchedFilterResult<>(size, items);
+		}, prefetched -> {
+			if (getDataProvider() != dataProvider) {
+				return;
+			}
+			long start = instrumentation.startTimer();
+			boolean usePrefetched = sortOrders.equals(getDataCommunicator().getBackEndSorting());
+			if (usePrefetched) {
+				prefetchedFilterResult = prefetched;
+			}
+			applyBackendFilterSpecification(activeSpecification);
+			if (usePrefetched) {
+				// used by the data communicator in this round trip only
+				getUI().ifPresent(ui -> ui.beforeClientResponse(this, context -> context.getUI()
+						.beforeClientResponse(this, lastContext -> prefetchedFilterResult = null)));
+			}
+			instrumentation.recordTime(GridMetrics.APPLY_BACKEND_FILTER, start);
+		});
+	}
+
+	private void doApplyBackendFilter() {
+		applyBackendFilterSpecification(buildBackendFilterSpecification());
+	}
+
+	/**
+	 * Build the specification of the filters selected for each column.
+	 * 
+	 * @return the specification, null if no filter is selected
+	 */
+	private Specification<T> buildBackendFilterSpecification() {
 		Specification<T> finalSpecification = Specification.where(null);
 		Boolean filterActive = false;
-		Boolean fireEvent = false;
 
 		for (Column<T> column : getColumns()) {
 			EnhancedColumn<T> enhancedColumn = (EnhancedColumn<T>) column;
@@ -544,14 +1540,21 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
 			}
 		}
 
-		applyFilterSpecification(finalSpecification);
+		return Boolean.TRUE.equals(filterActive) ? finalSpecification : null;
+	}
+
+	private void applyBackendFilterSpecification(Specification<T> activeSpecification) {
+		Boolean filterActive = activeSpecification != null;
+		Boolean fireEvent = false;
+
+		applyFilterSpecification(filterActive ? activeSpecification : Specification.where(null));
 
 		// filter has been deactivated
 		if (Boolean.FALSE.equals(filterActive) && filterSpecification != null)
 			fireEvent = true;
 
 		// set filter spec to null of no more filter is active
-		filterSpecification = Boolean.TRUE.equals(filterActive) ? finalSpecification : null;
+		filterSpecification = activeSpecification;
 
 		// notify all listeners if filter was resetted (is new) of not empty
 		if (filterSpecification != null)
@@ -609,6 +1612,102 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
 		applyFilter();
 	}	
 	
+	/**
+	 * Register a column whose filter field is opened by the filter-clicked event.
+	 * 
+	 * A single listener dispatches the event to the clicked column, 
+	 * looked up by its internal id.
+	 * 
+	 * @param columnId the internal id of the column
+	 * @param column
+	 */
+	void registerFilterableColumn(String columnId, EnhancedColumn<T> column) {
+		filterableColumns.put(columnId, column);
+		if(filterClickedRegistration == null) {
+			filterClickedRegistration = addFilterClickedEventListener(e -> {
+				EnhancedColumn<T> clickedColumn = filterableColumns.get(e.buttonId);
+				if(clickedColumn != null) {
+					clickedColumn.toggleFilterField();
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Set whether all the columns share one filter field (popup component).
+	 * 
+	 * When enabled, the grid owns a single filter field which is moved to the 
+	 * header of the clicked column and shows that column's filter component.
+	 * This keeps the number of components constant regardless of the number of 
+	 * filterable columns. Columns that already opened their own filter field
+	 * keep using it.
+	 * 
+	 * @param sharedFilterPopup
+	 */
+	public void setSharedFilterPopup(boolean sharedFilterPopup) {
+		this.sharedFilterPopup = sharedFilterPopup;
+		if(!sharedFilterPopup && sharedFilterField != null) {
+			sharedFilterField.getElement().removeFromParent();
+			sharedFilterAnchor.getElement().removeFromParent();
+			sharedFilterField = null;
+			sharedFilterAnchor = null;
+			sharedFilterColumn = null;
+		}
+	}
+	
+	public boolean isSharedFilterPopup() {
+		return sharedFilterPopup;
+	}
+	
+	/**
+	 * Open the shared filter field for the given column, or close it if 
+	 * it is already open for that column.
+	 * 
+	 * @param columnId the internal id of the column
+	 * @param column
+	 * @param headerComponent the header component of the column
+	 * @param filterComponent the filter component of the column
+	 */
+	void toggleSharedFilterField(String columnId, EnhancedColumn<T> column, Component headerComponent, Component filterComponent) {
+		if(sharedFilterField == null) {
+			createSharedFilterField();
+		} else if(column == sharedFilterColumn && sharedFilterField.isOpened()) {
+			sharedFilterField.hide();
+			return;
+		}
+		if(column != sharedFilterColumn) {
+			sharedFilterColumn = column;
+			sharedFilterField.setFilterComponent(filterComponent);
+			
+			// move the anchor and the filter field to the header of the column
+			sharedFilterAnchor.getElement().removeFromParent();
+			sharedFilterField.getElement().removeFromParent();
+			sharedFilterAnchor.setId("enhanced-grid-filter-" + getElement().getNode().getId() + "-" + columnId);
+			headerComponent.getElement().appendChild(sharedFilterAnchor.getElement(), sharedFilterField.getElement());
+			sharedFilterField.setFor(sharedFilterAnchor.getId().get());
+		}
+		sharedFilterField.show();
+	}
+	
+	private void createSharedFilterField() {
+		FilterField filterField = new FilterField();
+		filterField.addApplyFilterListener(this);
+		filterField.addPopupOpenChangedEventListener(e -> {
+			if(getEditor().getItem() != null) {
+				if(allowCancelEditDialogDisplay()) {
+					cancelEditWithCancelCallback(() -> filterField.hide());
+				} else {
+					getEditor().cancel();
+				}
+			}
+		});
+		sharedFilterField = filterField;
+		
+		// need a not visible component so the filter field (popup component) can be open
+		sharedFilterAnchor = new Div();
+		sharedFilterAnchor.getElement().getStyle().set("display", "inline-block");
+	}
+	
 	/**
     * Add listener on filter-clicked event.
     * 
@@ -642,6 +1741,342 @@ public class EnhancedGrid<T> extends Grid<T> implements BeforeLeaveObserver, App
    public Specification<T> getFilterSpecification() {
 	   return this.filterSpecification;
    }
+
+   /**
+    * Set the metrics used by the grids without metrics of their own.
+    * 
+    * @param metrics the metrics, {@link GridMetrics#NO_OP} or null to take no measurement
+    */
+   public static void setDefaultMetrics(GridMetrics metrics) {
+	   GridInstrumentation.setDefaultMetrics(metrics);
+   }
+
+   public static GridMetrics getDefaultMetrics() {
+	   return GridInstrumentation.getDefaultMetrics();
+   }
+
+   /**
+    * Get the instrumentation recording the operations of this grid in the metrics, 
+    * tracing its round trips and counting its client communication.
+    * 
+    * @return the instrumentation of this grid
+    */
+   protected GridInstrumentation getInstrumentation() {
+	   return instrumentation;
+   }
+
+   /**
+    * Set the metrics recording the operations of this grid, instead of the 
+    * {@link #setDefaultMetrics(GridMetrics) default metrics}.
+    * <p>
+    * The grids created with {@code EnhancedGrid(beanType, false)} keep the data 
+    * communicator of the Vaadin grid: the fetch and count calls of their data 
+    * provider, the ranges requested by the client and their data generators are 
+    * not measured.
+    * 
+    * @param metrics the metrics, null to use the default metrics
+    * @see GridInstrumentation#setMetrics(GridMetrics)
+    */
+   public void setMetrics(GridMetrics metrics) {
+	   instrumentation.setMetrics(metrics);
+   }
+
+   public GridMetrics getMetrics() {
+	   return instrumentation.getMetrics();
+   }
+
+   /**
+    * Set the id the metrics of this grid are tagged with. Defaults to the id of 
+    * the component if set, otherwise to the simple name of its class.
+    * 
+    * @param metricsId
+    */
+   public void setMetricsId(String metricsId) {
+	   instrumentation.setMetricsId(metricsId);
+   }
+
+   public String getMetricsId() {
+	   return instrumentation.getMetricsId();
+   }
+
+   /**
+    * Log a warning when the grid spends more than the given time under the session 
+    * lock in a request or a {@code UI.access} command, from its first operation 
+    * until its rows are sent, listing the operations of the grid (fetch, count, 
+    * filtering, selection update, expanding...) it ran. The time the lock is held 
+    * before the first operation of the grid, and while the response is written, 
+    * is not measured.
+    * <p>
+    * While the lock is held, no other request of the user is handled, including push. 
+    * The expensive part of some operations can be run outside of 
+    * the lock, see {@link #selectAllAsync(Executor)},
+    * {@link #applyBackendFilterAsync(Executor)} and
+    * {@code EnhancedTreeGrid.expandRecursivelyAsync}.
+    * 
+    * @param threshold the threshold, null or zero to disable the logging
+    */
+   public void setLockTimeWarningThreshold(Duration threshold) {
+	   instrumentation.setLockTimeWarningThreshold(threshold);
+   }
+
+   public Duration getLockTimeWarningThreshold() {
+	   return instrumentation.getLockTimeWarningThreshold();
+   }
+
+   /**
+    * Run a task with the executor, outside of the session lock, then apply its 
+    * result to the grid in {@link UI#access(com.vaadin.flow.server.Command)}.
+    * <p>
+    * The task must not touch the grid or the session: it only gets what was 
+    * captured while holding the lock, and the data provider it uses has to allow 
+    * concurrent reads. The result is applied once the lock is free, and sent to 
+    * the client with push or on the next request (e.g. polling).
+    * 
+    * @param executor the executor running the task
+    * @param task the task, run outside of the lock
+    * @param apply applies the result of the task, run holding the lock
+    * @return a future completed once the result is applied, exceptionally if the 
+    *         task or apply failed, or if the UI has been detached in the meantime
+    * @throws IllegalStateException if the grid is not attached
+    */
+   protected <R> CompletableFuture<Void> runOutsideLock(Executor executor, Supplier<R> task, Consumer<R> apply) {
+	   UI ui = getUI().orElseThrow(() -> new IllegalStateException("The grid has to be attached"));
+	   return CompletableFuture.supplyAsync(task, executor)
+			   .thenCompose(result -> applyHoldingLock(ui, () -> apply.accept(result)));
+   }
+
+   /**
+    * Run a task with the executor, outside of the session lock, then apply the 
+    * items it returns to the grid in chunks, each one in its own 
+    * {@link UI#access(com.vaadin.flow.server.Command)}, so that the lock is 
+    * released between the chunks.
+    * <p>
+    * The next chunk is applied by the executor once the previous one has been 
+    * applied, the remaining chunks being dropped if one fails. See 
+    * {@link #runOutsideLock(Executor, Supplier, Consumer)} for the constraints 
+    * on the task.
+    * 
+    * @param executor the executor running the task
+    * @param task the task, run outside of the lock
+    * @param chunkSize the maximum number of items applied at once
+    * @param apply applies a chunk of the items, run holding the lock
+    * @return a future completed once all the chunks are applied, exceptionally 
+    *         if the task or a chunk failed, or if the UI has been detached in 
+    *         the meantime
+    * @throws IllegalStateException if the grid is not attached
+    */
+   protected <E> CompletableFuture<Void> runOutsideLock(Executor executor, Supplier<List<E>> task, int chunkSize,
+		   Consumer<List<E>> apply) {
+	   UI ui = getUI().orElseThrow(() -> new IllegalStateException("The grid has to be attached"));
+	   return CompletableFuture.supplyAsync(task, executor).thenCompose(items -> {
+		   CompletableFuture<Void> applied = CompletableFuture.completedFuture(null);
+		   for (int from = 0; from < items.size(); from += chunkSize) {
+			   List<E> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+			   applied = applied.thenComposeAsync(previous -> applyHoldingLock(ui, () -> apply.accept(chunk)),
+					   executor);
+		   }
+		   return applied;
+	   });
+   }
+
+   private CompletableFuture<Void> applyHoldingLock(UI ui, Runnable apply) {
+	   CompletableFuture<Void> applied = new CompletableFuture<>();
+	   try {
+		   ui.access(() -> {
+			   instrumentation.startLockTime();
+			   try {
+				   apply.run();
+				   applied.complete(null);
+			   } catch (RuntimeException e) {
+				   applied.completeExceptionally(e);
+				   throw e;
+			   }
+		   });
+	   } catch (UIDetachedException e) {
+		   applied.completeExceptionally(e);
+	   }
+	   return applied;
+   }
+
+   protected static EnhancedGrid<?> getEnhancedGrid(Element element) {
+	   return (EnhancedGrid<?>) element.getComponent().get();
+   }
+
+   /**
+    * Log a warning when the grid spends more than the given time in a round trip, 
+    * with the time spent in each stage (filtering, count, fetch, data generators, 
+    * enqueuing the rows), the rows fetched, the filters and the sort orders.
+    * <p>
+    * Nothing is measured while no threshold is set.
+    * 
+    * @param threshold the threshold, null or zero to disable the logging
+    */
+   public void setSlowOperationThreshold(Duration threshold) {
+	   instrumentation.setSlowOperationThreshold(threshold);
+   }
+
+   public Duration getSlowOperationThreshold() {
+	   return instrumentation.getSlowOperationThreshold();
+   }
+
+   private String describeQuery() {
+	   return "filter " + describeFilter() + ", sort " + describeSortOrder();
+   }
+
+   private String describeFilter() {
+	   if (filterBackend) {
+		   return String.valueOf(getFilterSpecification());
+	   }
+	   return getColumns().stream().map(column -> (EnhancedColumn<T>) column)
+			   .filter(EnhancedColumn::hasFilterSelected)
+			   .map(this::describeColumn)
+			   .collect(Collectors.joining(", ", "on columns [", "]"));
+   }
+
+   private String describeSortOrder() {
+	   List<GridSortOrder<T>> sortOrder = getSortOrder();
+	   return sortOrder.stream()
+			   .map(order -> describeColumn((EnhancedColumn<T>) order.getSorted()) + " " + order.getDirection())
+			   .collect(Collectors.joining(", ", "[", "]"));
+   }
+
+   private String describeColumn(EnhancedColumn<T> column) {
+	   return column.getKey() != null ? column.getKey() : column.getColumnId();
+   }
+
+   /**
+    * Show the client communication of the last interaction with the grid (calls 
+    * received from the client, JavaScript calls, enqueued calls and JSON bytes 
+    * sent) in an overlay over the grid, to find the chatty interactions while 
+    * developing. The counters are also recorded in the metrics, if set.
+    * <p>
+    * Nothing is counted while the overlay is hidden and no metrics are set.
+    * 
+    * @param trafficOverlayVisible
+    * @see #getLastTraffic()
+    */
+   public void setTrafficOverlayVisible(boolean trafficOverlayVisible) {
+	   instrumentation.setTrafficOverlayVisible(trafficOverlayVisible);
+   }
+
+   public boolean isTrafficOverlayVisible() {
+	   return instrumentation.isTrafficOverlayVisible();
+   }
+
+   /**
+    * Get the client communication of the last interaction with the grid, i.e. of 
+    * the last round trip in which it received or sent anything.
+    * <p>
+    * Only the calls made by the add-on and its data communicator are counted, not 
+    * the ones made by the Vaadin grid itself, e.g. when changing its properties.
+    * 
+    * @return the traffic of the last interaction, null if not counted
+    * @see #setTrafficOverlayVisible(boolean)
+    * @see #setMetrics(GridMetrics)
+    */
+   public GridTraffic getLastTraffic() {
+	   return instrumentation.getLastTraffic();
+   }
+
+   /**
+    * Execute a JavaScript expression on the grid element, counted in the traffic 
+    * of the current interaction.
+    * 
+    * @see Element#executeJs(String, Serializable...)
+    */
+   protected PendingJavaScriptResult executeJs(String expression, Serializable... parameters) {
+	   instrumentation.countJsCall(expression, parameters);
+	   return getElement().executeJs(expression, parameters);
+   }
+
+   /**
+    * Estimate the memory held by this grid, by subsystem: the selected items, the 
+    * keys of the rows sent to the client, the filter components and the caches.
+    * <p>
+    * The estimate only counts the entries of each subsystem, it is cheap enough 
+    * to be sampled periodically.
+    * 
+    * @return the estimated footprint
+    */
+   public GridMemoryFootprint getMemoryFootprint() {
+	   GridMemoryFootprint footprint = new GridMemoryFootprint();
+	   estimateMemoryFootprint(footprint);
+	   return footprint;
+   }
+
+   /**
+    * Add the estimates of the subsystems of this grid to the footprint.
+    * 
+    * @param footprint
+    */
+   protected void estimateMemoryFootprint(GridMemoryFootprint footprint) {
+	   int activeRows = instrumentation.getActiveRows();
+	   footprint.add(GridMemoryFootprint.SELECTION, selectionSize, (long) selectionSize * SELECTION_ENTRY_BYTES);
+	   footprint.add(GridMemoryFootprint.KEY_MAPPER, activeRows, (long) activeRows * KEY_MAPPER_ENTRY_BYTES);
+
+	   int filterElements = filterableColumns.values().stream().mapToInt(EnhancedColumn::countFilterElements).sum();
+	   if (sharedFilterField != null) {
+		   filterElements += EnhancedColumn.countElements(sharedFilterField.getElement());
+	   }
+	   footprint.add(GridMemoryFootprint.FILTER_COMPONENTS, filterElements, (long) filterElements * FILTER_ELEMENT_BYTES);
+
+	   int predicateResults = predicateResultCache != null ? predicateResultCache.size() : 0;
+	   int dictionaryEntries = compactRowDictionary != null ? compactRowDictionary.size() : 0;
+	   footprint.add(GridMemoryFootprint.CACHES, predicateResults + dictionaryEntries,
+			   (long) predicateResults * PREDICATE_CACHE_ENTRY_BYTES + (long) dictionaryEntries * DICTIONARY_ENTRY_BYTES);
+   }
+
+   /**
+    * Estimate the memory held by all the grids attached to the UIs of a session.
+    * <p>
+    * The session has to be locked, e.g. by calling this method from 
+    * {@link VaadinSession#access(com.vaadin.flow.server.Command)}.
+    * 
+    * @param session
+    * @return the sum of the footprints of the grids of the session
+    */
+   public static GridMemoryFootprint getSessionMemoryFootprint(VaadinSession session) {
+	   GridMemoryFootprint footprint = new GridMemoryFootprint();
+	   getSessionMemoryFootprints(session).values().forEach(footprint::add);
+	   return footprint;
+   }
+
+   /**
+    * Estimate the memory held by each grid attached to the UIs of a session.
+    * 
+    * @param session
+    * @return the footprints by metrics id, summed for the grids sharing an id
+    * @see GridInstrumentation#getSessionMemoryFootprints(VaadinSession)
+    */
+   public static Map<String, GridMemoryFootprint> getSessionMemoryFootprints(VaadinSession session) {
+	   return GridInstrumentation.getSessionMemoryFootprints(session);
+   }
+
+   @SuppressWarnings({ "unchecked", "rawtypes" })
+   private void initMetrics() {
+	   addListener(SingleSelectionEvent.class, (ComponentEventListener) e -> {
+		   selectionSize = ((SingleSelectionEvent) e).getValue() != null ? 1 : 0;
+		   instrumentation.recordValue(GridMetrics.SELECTION_SIZE, selectionSize);
+		   countRpcFromClient((SingleSelectionEvent) e);
+	   });
+	   addListener(MultiSelectionEvent.class, (ComponentEventListener) e -> {
+		   selectionSize = ((MultiSelectionEvent) e).getValue().size();
+		   instrumentation.recordValue(GridMetrics.SELECTION_SIZE, selectionSize);
+		   countRpcFromClient((MultiSelectionEvent) e);
+	   });
+	   addSortListener(e -> {
+		   if (e.isFromClient()) {
+			   instrumentation.countRpc();
+		   }
+	   });
+	   addFilterClickedEventListener(e -> instrumentation.countRpc());
+	   addDataGenerator((item, data) -> instrumentation.countRowSent());
+   }
+
+   private void countRpcFromClient(SelectionEvent<?, ?> event) {
+	   if (event.isFromClient()) {
+		   instrumentation.countRpc();
+	   }
+   }
 	   
 }
-
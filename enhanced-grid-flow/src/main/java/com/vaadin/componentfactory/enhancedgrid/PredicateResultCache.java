@@ -0,0 +1,108 @@
+package com.vaadin.componentfactory.enhancedgrid;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.vaadin.flow.function.SerializablePredicate;
+
+/**
+ * Bounded, least recently used cache of the selection and editable predicate
+ * results of the rows of an {@link EnhancedGrid}, keyed by item id.
+ *
+ * @param <T>
+ *            the item type
+ */
+@SuppressWarnings("serial")
+class PredicateResultCache<T> implements Serializable {
+
+	static final int SELECTABLE = 0;
+
+	static final int EDITABLE = 2;
+
+	private static final int KNOWN = 1;
+
+	private static final int VALUE = 2;
+
+	private final Map<Object, Integer> results;
+
+	PredicateResultCache(int maxSize) {
+		results = new LinkedHashMap<Object, Integer>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, Integer> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached result of the predicate for the given item, testing
+	 * the predicate only if the result is not known yet.
+	 *
+	 * @param itemId
+	 *            the id of the item
+	 * @param item
+	 *            the item
+	 * @param predicate
+	 *            the predicate
+	 * @param kind
+	 *            {@link #SELECTABLE} or {@link #EDITABLE}
+	 * @return the predicate result
+	 */
+	boolean test(Object itemId, T item, SerializablePredicate<T> predicate, int kind) {
+		int flags = results.getOrDefault(itemId, 0);
+		int known = KNOWN << kind;
+		int value = VALUE << kind;
+		if ((flags & known) == 0) {
+			flags |= known;
+			if (predicate.test(item)) {
+				flags |= value;
+			}
+			results.put(itemId, flags);
+		}
+		return (flags & value) != 0;
+	}
+
+	void invalidate(Object itemId) {
+		results.remove(itemId);
+	}
+
+	/**
+	 * Forgets the results of one kind of predicate, e.g. when it is replaced.
+	 *
+	 * @param kind
+	 *            {@link #SELECTABLE} or {@link #EDITABLE}
+	 */
+	void invalidate(int kind) {
+		int mask = ~((KNOWN | VALUE) << kind);
+		results.replaceAll((id, flags) -> flags & mask);
+	}
+
+	void clear() {
+		results.clear();
+	}
+
+	int size() {
+		return results.size();
+	}
+}
@@ -0,0 +1,70 @@
+package com.vaadin.componentfactory.enhancedgrid;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.QuerySortOrder;
+
+/**
+ * {@link DataProvider} able to query its backend with a given
+ * {@link Specification}, independently of the filter it is configured with.
+ * <p>
+ * {@link EnhancedGrid#applyBackendFilterAsync(java.util.concurrent.Executor)}
+ * uses it to count and fetch the first rows of a new filter outside of the
+ * session lock, before the filter is set on the grid. Both methods are called
+ * from the thread of the executor, concurrently with the requests of the UI.
+ *
+ * @param <T>
+ *            data type
+ * @param <F>
+ *            filter type
+ */
+public interface SpecificationQueryDataProvider<T, F> extends DataProvider<T, F> {
+
+	/**
+	 * Counts the items matching the specification.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @return the number of items
+	 */
+	int size(Specification<T> specification);
+
+	/**
+	 * Fetches a range of the items matching the specification.
+	 *
+	 * @param specification
+	 *            the specification
+	 * @param offset
+	 *            the index of the first item
+	 * @param limit
+	 *            the maximum number of items
+	 * @param sortOrders
+	 *            the backend sort orders of the grid
+	 * @return the items
+	 */
+	Stream<T> fetch(Specification<T> specification, int offset, int limit, List<QuerySortOrder> sortOrders);
+}
@@ -0,0 +1,491 @@
+package com.vaadin.componentfactory.enhancedgrid.metrics;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.server.VaadinSession;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+/**
+ * Instrumentation of an {@code EnhancedGrid}: records the time of its operations
+ * in the {@link GridMetrics metrics}, traces its slow round trips and counts its
+ * client communication.
+ * <p>
+ * Each grid creates its own instrumentation, and registers it in the session
+ * while attached so that the memory footprint of the session can be estimated.
+ */
+@SuppressWarnings("serial")
+public class GridInstrumentation implements Serializable {
+
+	/** Stage of a round trip trace in which the data generators run. */
+	public static final String TRACE_GENERATE = "generate";
+
+	/** Stage of a round trip trace in which the rows are enqueued for the client. */
+	public static final String TRACE_ENQUEUE = "enqueue";
+
+	private static final Logger log = LoggerFactory.getLogger(GridInstrumentation.class);
+
+	private static volatile GridMetrics defaultMetrics = GridMetrics.NO_OP;
+
+	private final Component grid;
+
+	private final SerializableSupplier<String> queryDescription;
+
+	private final SerializableSupplier<GridMemoryFootprint> memoryFootprint;
+
+	private transient GridMetrics metrics;
+
+	private String metricsId;
+
+	private long slowOperationThresholdNanos = 0;
+
+	private long lockTimeWarningThresholdNanos = 0;
+
+	private transient RoundTripTrace roundTripTrace;
+
+	private boolean trafficOverlayVisible = false;
+
+	private transient GridTraffic traffic;
+
+	private GridTraffic lastTraffic;
+
+	private int rowsSent = 0;
+
+	private transient long lockTimeStart = 0;
+
+	private transient Set<String> lockTimeOperations;
+
+	private int activeRows = 0;
+
+	private boolean countingActiveRows = false;
+
+	/**
+	 * @param grid the instrumented grid
+	 * @param queryDescription describes the filter and the sort orders of the grid,
+	 *        logged with the slow round trips
+	 * @param memoryFootprint estimates the memory held by the grid
+	 */
+	public GridInstrumentation(Component grid, SerializableSupplier<String> queryDescription,
+			SerializableSupplier<GridMemoryFootprint> memoryFootprint) {
+		this.grid = grid;
+		this.queryDescription = queryDescription;
+		this.memoryFootprint = memoryFootprint;
+		grid.addAttachListener(e -> SessionGrids.register(e.getUI().getSession(), this));
+		grid.addDetachListener(e -> SessionGrids.unregister(e.getUI().getSession(), this));
+	}
+
+	/**
+	 * Set the metrics used by the grids without metrics of their own.
+	 *
+	 * @param metrics the metrics, {@link GridMetrics#NO_OP} or null to take no measurement
+	 */
+	public static void setDefaultMetrics(GridMetrics metrics) {
+		defaultMetrics = metrics != null ? metrics : GridMetrics.NO_OP;
+	}
+
+	public static GridMetrics getDefaultMetrics() {
+		return defaultMetrics;
+	}
+
+	/**
+	 * Set the metrics recording the operations of the grid, instead of the
+	 * {@link #setDefaultMetrics(GridMetrics) default metrics}.
+	 * <p>
+	 * The metrics are not kept when the session is serialized, the grid uses the
+	 * default metrics once deserialized.
+	 *
+	 * @param metrics the metrics, null to use the default metrics
+	 */
+	public void setMetrics(GridMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public GridMetrics getMetrics() {
+		return metrics != null ? metrics : defaultMetrics;
+	}
+
+	/**
+	 * Set the id the metrics of the grid are tagged with. Defaults to the id of
+	 * the component if set, otherwise to the simple name of its class.
+	 *
+	 * @param metricsId
+	 */
+	public void setMetricsId(String metricsId) {
+		this.metricsId = metricsId;
+	}
+
+	public String getMetricsId() {
+		if (metricsId != null) {
+			return metricsId;
+		}
+		return grid.getId().orElse(grid.getClass().getSimpleName());
+	}
+
+	/**
+	 * Start timing an operation.
+	 *
+	 * @return the start time to pass to {@link #recordTime(String, long)},
+	 *         0 if nothing is measured
+	 */
+	public long startTimer() {
+		if (getMetrics() == GridMetrics.NO_OP && slowOperationThresholdNanos <= 0
+				&& lockTimeWarningThresholdNanos <= 0) {
+			return 0;
+		}
+		startLockTime();
+		return System.nanoTime();
+	}
+
+	/**
+	 * Record the time of an operation in the metrics, and in the trace of the
+	 * current round trip if traced.
+	 *
+	 * @param operation
+	 * @param start the value returned by {@link #startTimer()}
+	 */
+	public void recordTime(String operation, long start) {
+		if (start != 0) {
+			long nanos = System.nanoTime() - start;
+			GridMetrics gridMetrics = getMetrics();
+			if (gridMetrics != GridMetrics.NO_OP) {
+				gridMetrics.recordTime(getMetricsId(), operation, nanos);
+			}
+			if (lockTimeOperations != null) {
+				lockTimeOperations.add(operation);
+			}
+			traceStage(operation, nanos);
+		}
+	}
+
+	public void recordValue(String name, long value) {
+		GridMetrics gridMetrics = getMetrics();
+		if (gridMetrics != GridMetrics.NO_OP) {
+			gridMetrics.recordValue(getMetricsId(), name, value);
+		}
+	}
+
+	/**
+	 * Start measuring the time of the grid under the session lock, until the
+	 * rows of the grid are sent, in the last {@code beforeClientResponse}
+	 * callbacks. The time the lock was held before the first operation of the
+	 * grid, and while the response is written, is not included. The time is
+	 * recorded once per locked round trip as {@link GridMetrics#GRID_LOCK_TIME},
+	 * and logged with the operations of the grid if above the
+	 * {@link #setLockTimeWarningThreshold(Duration) threshold}.
+	 * <p>
+	 * Called at the start of the {@code UI.access} commands of the grid. In a
+	 * request, the measure starts with the first call received from the client
+	 * or the first operation of the grid. Does nothing if already measuring, if
+	 * the lock is not held or if nothing is measured.
+	 */
+	public void startLockTime() {
+		if (lockTimeStart != 0 || !isSessionLockHeld()
+				|| (getMetrics() == GridMetrics.NO_OP && lockTimeWarningThresholdNanos <= 0)) {
+			return;
+		}
+		UI ui = grid.getUI().orElse(null);
+		if (ui == null) {
+			return;
+		}
+		lockTimeStart = System.nanoTime();
+		lockTimeOperations = new LinkedHashSet<>();
+		// the data communicator flushes in a callback of this round trip, end after it
+		ui.beforeClientResponse(grid, context -> context.getUI().beforeClientResponse(grid,
+				lastContext -> endLockTime()));
+	}
+
+	private void endLockTime() {
+		long nanos = System.nanoTime() - lockTimeStart;
+		Set<String> operations = lockTimeOperations;
+		lockTimeStart = 0;
+		lockTimeOperations = null;
+		GridMetrics gridMetrics = getMetrics();
+		if (gridMetrics != GridMetrics.NO_OP) {
+			gridMetrics.recordTime(getMetricsId(), GridMetrics.GRID_LOCK_TIME, nanos);
+		}
+		if (lockTimeWarningThresholdNanos > 0 && nanos >= lockTimeWarningThresholdNanos) {
+			log.warn("Grid {} spent {} ms under the session lock, operations {}", getMetricsId(),
+					TimeUnit.NANOSECONDS.toMillis(nanos), operations);
+		}
+	}
+
+	private static boolean isSessionLockHeld() {
+		VaadinSession session = VaadinSession.getCurrent();
+		return session != null && session.hasLock();
+	}
+
+	/**
+	 * Log a warning when the grid spends more than the given time under the
+	 * session lock in a round trip, see {@link #startLockTime()}.
+	 *
+	 * @param threshold the threshold, null or zero to disable the logging
+	 */
+	public void setLockTimeWarningThreshold(Duration threshold) {
+		lockTimeWarningThresholdNanos = threshold != null ? threshold.toNanos() : 0;
+	}
+
+	public Duration getLockTimeWarningThreshold() {
+		return lockTimeWarningThresholdNanos > 0 ? Duration.ofNanos(lockTimeWarningThresholdNanos) : null;
+	}
+
+	/**
+	 * Log a warning when the grid spends more than the given time in a round trip,
+	 * with the time spent in each stage, the rows fetched and the
+	 * {@code queryDescription}.
+	 * <p>
+	 * Nothing is measured while no threshold is set.
+	 *
+	 * @param threshold the threshold, null or zero to disable the logging
+	 */
+	public void setSlowOperationThreshold(Duration threshold) {
+		slowOperationThresholdNanos = threshold != null ? threshold.toNanos() : 0;
+		if (slowOperationThresholdNanos <= 0) {
+			roundTripTrace = null;
+		}
+	}
+
+	public Duration getSlowOperationThreshold() {
+		return slowOperationThresholdNanos > 0 ? Duration.ofNanos(slowOperationThresholdNanos) : null;
+	}
+
+	/**
+	 * Start timing a stage of the current round trip.
+	 *
+	 * @return the start time to pass to {@link #recordTraceTime(String, long)},
+	 *         0 if the round trips are not traced
+	 */
+	public long startTraceTimer() {
+		return slowOperationThresholdNanos > 0 ? System.nanoTime() : 0;
+	}
+
+	public void recordTraceTime(String stage, long start) {
+		if (start != 0) {
+			traceStage(stage, System.nanoTime() - start);
+		}
+	}
+
+	public void recordTraceRange(int offset, int limit) {
+		if (slowOperationThresholdNanos > 0) {
+			RoundTripTrace trace = getRoundTripTrace();
+			if (trace != null) {
+				trace.addRange(offset, limit);
+			}
+		}
+	}
+
+	private void traceStage(String stage, long nanos) {
+		if (slowOperationThresholdNanos > 0) {
+			RoundTripTrace trace = getRoundTripTrace();
+			if (trace != null) {
+				trace.add(stage, nanos);
+			}
+		}
+	}
+
+	private RoundTripTrace getRoundTripTrace() {
+		if (roundTripTrace == null) {
+			UI ui = grid.getUI().orElse(null);
+			if (ui == null) {
+				return null;
+			}
+			roundTripTrace = new RoundTripTrace();
+			ui.beforeClientResponse(grid, context -> endRoundTripTrace());
+		}
+		return roundTripTrace;
+	}
+
+	private void endRoundTripTrace() {
+		RoundTripTrace trace = roundTripTrace;
+		roundTripTrace = null;
+		if (trace != null && slowOperationThresholdNanos > 0 && trace.getTotalNanos() >= slowOperationThresholdNanos) {
+			log.warn("Slow round trip of grid {}: {} ms ({}), rows {}, {}", getMetricsId(),
+					trace.getTotalNanos() / 1_000_000, trace.describeStages(), trace.describeRange(),
+					queryDescription.get());
+		}
+	}
+
+	/**
+	 * Show the client communication of the last interaction with the grid in an
+	 * overlay over the grid.
+	 * <p>
+	 * Nothing is counted while the overlay is hidden and no metrics are set.
+	 *
+	 * @param trafficOverlayVisible
+	 * @see #getLastTraffic()
+	 */
+	public void setTrafficOverlayVisible(boolean trafficOverlayVisible) {
+		if (this.trafficOverlayVisible && !trafficOverlayVisible && grid.isAttached()) {
+			grid.getElement().executeJs("window.Vaadin.Flow.enhancedGridTrafficOverlay.hide(this)");
+		}
+		this.trafficOverlayVisible = trafficOverlayVisible;
+	}
+
+	public boolean isTrafficOverlayVisible() {
+		return trafficOverlayVisible;
+	}
+
+	/**
+	 * @return the traffic of the last interaction, i.e. of the last round trip in
+	 *         which the grid received or sent anything, null if not counted
+	 */
+	public GridTraffic getLastTraffic() {
+		return lastTraffic;
+	}
+
+	public void countRpc() {
+		startLockTime();
+		GridTraffic currentTraffic = getTraffic();
+		if (currentTraffic != null) {
+			currentTraffic.countRpc();
+		}
+	}
+
+	public void countJsCall(String expression, Serializable... arguments) {
+		GridTraffic currentTraffic = getTraffic();
+		if (currentTraffic != null) {
+			currentTraffic.countJsCall(expression, arguments);
+		}
+	}
+
+	public void countEnqueuedCall(String name, Serializable... arguments) {
+		GridTraffic currentTraffic = getTraffic();
+		if (currentTraffic != null) {
+			currentTraffic.countEnqueuedCall(name, arguments);
+		}
+	}
+
+	private GridTraffic getTraffic() {
+		if (traffic == null) {
+			if (!trafficOverlayVisible && getMetrics() == GridMetrics.NO_OP) {
+				return null;
+			}
+			UI ui = grid.getUI().orElse(null);
+			if (ui == null) {
+				return null;
+			}
+			traffic = new GridTraffic();
+			// the data communicator may flush after this callback, so end the
+			// interaction in a callback run after all the pending ones
+			ui.beforeClientResponse(grid, context -> context.getUI().beforeClientResponse(grid,
+					lastContext -> endTraffic()));
+		}
+		return traffic;
+	}
+
+	private void endTraffic() {
+		GridTraffic endedTraffic = traffic;
+		traffic = null;
+		if (endedTraffic == null || endedTraffic.isEmpty()) {
+			return;
+		}
+		lastTraffic = endedTraffic;
+		recordValue(GridMetrics.RPCS, endedTraffic.getRpcs());
+		recordValue(GridMetrics.JS_CALLS, endedTraffic.getJsCalls());
+		recordValue(GridMetrics.ENQUEUED_CALLS, endedTraffic.getEnqueuedCalls());
+		recordValue(GridMetrics.JSON_BYTES, endedTraffic.getJsonBytes());
+		if (trafficOverlayVisible) {
+			JsonObject counters = Json.createObject();
+			counters.put("rpcs", endedTraffic.getRpcs());
+			counters.put("jsCalls", endedTraffic.getJsCalls());
+			counters.put("enqueuedCalls", endedTraffic.getEnqueuedCalls());
+			counters.put("jsonBytes", endedTraffic.getJsonBytes());
+			// not counted, the overlay is not part of the interaction
+			grid.getElement().executeJs("window.Vaadin.Flow.enhancedGridTrafficOverlay.show(this, $0)", counters);
+		}
+	}
+
+	/**
+	 * Count a row generated for the client, the total being recorded once per round trip.
+	 */
+	public void countRowSent() {
+		if (getMetrics() == GridMetrics.NO_OP) {
+			return;
+		}
+		if (rowsSent++ == 0) {
+			grid.getElement().getNode().runWhenAttached(ui -> ui.beforeClientResponse(grid, context -> {
+				recordValue(GridMetrics.ROWS_SENT, rowsSent);
+				rowsSent = 0;
+			}));
+		}
+	}
+
+	/**
+	 * Count the rows of a fetch, all the rows fetched in a round trip being kept
+	 * by the key mapper until the next one.
+	 *
+	 * @param items the fetched items
+	 * @return the items, counted when consumed
+	 */
+	public <I> Stream<I> countActiveRows(Stream<I> items) {
+		if (!countingActiveRows) {
+			countingActiveRows = true;
+			activeRows = 0;
+			grid.getElement().getNode().runWhenAttached(ui -> ui.beforeClientResponse(grid,
+					context -> countingActiveRows = false));
+		}
+		return items.peek(item -> activeRows++);
+	}
+
+	/**
+	 * @return the number of rows fetched in the last round trip
+	 */
+	public int getActiveRows() {
+		return activeRows;
+	}
+
+	public GridMemoryFootprint getMemoryFootprint() {
+		return memoryFootprint.get();
+	}
+
+	/**
+	 * Estimate the memory held by each grid attached to the UIs of a session.
+	 * <p>
+	 * The session has to be locked, e.g. by calling this method from
+	 * {@link VaadinSession#access(com.vaadin.flow.server.Command)}.
+	 *
+	 * @param session
+	 * @return the footprints by metrics id, summed for the grids sharing an id
+	 */
+	public static Map<String, GridMemoryFootprint> getSessionMemoryFootprints(VaadinSession session) {
+		Map<String, GridMemoryFootprint> footprints = new LinkedHashMap<>();
+		for (GridInstrumentation instrumentation : SessionGrids.get(session)) {
+			footprints.computeIfAbsent(instrumentation.getMetricsId(), id -> new GridMemoryFootprint())
+					.add(instrumentation.getMemoryFootprint());
+		}
+		return footprints;
+	}
+}
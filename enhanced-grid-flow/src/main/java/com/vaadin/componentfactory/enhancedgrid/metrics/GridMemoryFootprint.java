@@ -0,0 +1,123 @@
+package com.vaadin.componentfactory.enhancedgrid.metrics;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimated memory held by one or several {@code EnhancedGrid}s, by subsystem.
+ * <p>
+ * The sizes are computed from the number of entries of each subsystem and the
+ * usual size of such an entry on a 64 bit JVM with compressed references,
+ * without walking the object graph, so they are cheap enough to be sampled
+ * periodically. The items themselves are not counted, as they are shared with
+ * the data provider.
+ *
+ * @see com.vaadin.componentfactory.enhancedgrid.EnhancedGrid#getMemoryFootprint()
+ */
+@SuppressWarnings("serial")
+public class GridMemoryFootprint implements Serializable {
+
+	/** Selected items of the selection model. */
+	public static final String SELECTION = "selection";
+
+	/** Unique keys generated for the items of a tree grid. */
+	public static final String UNIQUE_KEYS = "unique-keys";
+
+	/** Ids of the expanded items of a tree grid. */
+	public static final String EXPANDED_ITEMS = "expanded-items";
+
+	/** Keys of the rows currently sent to the client. */
+	public static final String KEY_MAPPER = "key-mapper";
+
+	/** Elements of the column filter components and popups. */
+	public static final String FILTER_COMPONENTS = "filter-components";
+
+	/** Cached predicate results, compact row dictionary entries and descendant counts. */
+	public static final String CACHES = "caches";
+
+	private final Map<String, long[]> subsystems = new LinkedHashMap<>();
+
+	/**
+	 * Add the estimate of a subsystem, summed with the previous one if any.
+	 *
+	 * @param subsystem
+	 *            the subsystem
+	 * @param entries
+	 *            the number of entries
+	 * @param estimatedBytes
+	 *            the estimated size of the entries, in bytes
+	 * @return this footprint
+	 */
+	public GridMemoryFootprint add(String subsystem, long entries, long estimatedBytes) {
+		long[] values = subsystems.computeIfAbsent(subsystem, key -> new long[2]);
+		values[0] += entries;
+		values[1] += estimatedBytes;
+		return this;
+	}
+
+	/**
+	 * Add all the estimates of another footprint, e.g. to sum the footprints
+	 * of several grids.
+	 *
+	 * @param footprint
+	 *            the footprint to add
+	 * @return this footprint
+	 */
+	public GridMemoryFootprint add(GridMemoryFootprint footprint) {
+		footprint.subsystems.forEach((subsystem, values) -> add(subsystem, values[0], values[1]));
+		return this;
+	}
+
+	public Set<String> getSubsystems() {
+		return Collections.unmodifiableSet(subsystems.keySet());
+	}
+
+	public long getEntries(String subsystem) {
+		long[] values = subsystems.get(subsystem);
+		return values != null ? values[0] : 0;
+	}
+
+	public long getEstimatedBytes(String subsystem) {
+		long[] values = subsystems.get(subsystem);
+		return values != null ? values[1] : 0;
+	}
+
+	/**
+	 * @return the estimated size of all the subsystems, in bytes
+	 */
+	public long getEstimatedBytes() {
+		return subsystems.values().stream().mapToLong(values -> values[1]).sum();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder().append(getEstimatedBytes()).append(" bytes");
+		subsystems.forEach((subsystem, values) -> builder.append(builder.indexOf("(") < 0 ? " (" : ", ")
+				.append(subsystem).append(' ').append(values[1]).append(" bytes/").append(values[0])
+				.append(" entries"));
+		return subsystems.isEmpty() ? builder.toString() : builder.append(')').toString();
+	}
+}
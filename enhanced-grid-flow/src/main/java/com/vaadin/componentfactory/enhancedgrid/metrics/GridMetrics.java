@@ -0,0 +1,128 @@
+package com.vaadin.componentfactory.enhancedgrid.metrics;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+
+/**
+ * Receives the measurements of the operations of an {@code EnhancedGrid}.
+ * <p>
+ * Every measurement is tagged with the id of the grid it was taken on, see
+ * {@code EnhancedGrid#setMetricsId(String)}. The default implementation,
+ * {@link #NO_OP}, drops them and is never called, so the grids take no
+ * measurement at all unless metrics are set.
+ *
+ * @see MicrometerGridMetrics
+ */
+public interface GridMetrics extends Serializable {
+
+	/** Timer of {@code EnhancedGrid.applyFrontendFilter}. */
+	String APPLY_FRONTEND_FILTER = "apply-frontend-filter";
+
+	/** Timer of {@code EnhancedGrid.applyBackendFilter}. */
+	String APPLY_BACKEND_FILTER = "apply-backend-filter";
+
+	/** Timer of the fetch calls of the data provider. */
+	String FETCH = "fetch";
+
+	/** Timer of the count calls of the data provider. */
+	String COUNT = "count";
+
+	/** Timer of the expanding of tree grid items. */
+	String EXPAND = "expand";
+
+	/** Timer of the collapsing of tree grid items. */
+	String COLLAPSE = "collapse";
+
+	/**
+	 * Timer of the time a request or a {@code UI.access} command spends under
+	 * the session lock from the first operation of the grid until its rows are
+	 * sent, recorded once per round trip. The time the lock is held before and
+	 * while the response is written is not included, see
+	 * {@code EnhancedGrid#setLockTimeWarningThreshold(Duration)}.
+	 */
+	String GRID_LOCK_TIME = "grid-lock-time";
+
+	/** Timer of the selection updates of the multi selection model. */
+	String SELECTION_UPDATE = "selection-update";
+
+	/** Number of selected items, recorded on each selection change. */
+	String SELECTION_SIZE = "selection-size";
+
+	/** Number of rows sent to the client, recorded once per round trip. */
+	String ROWS_SENT = "rows-sent";
+
+	/** Number of calls received from the client, recorded once per round trip, see {@link GridTraffic}. */
+	String RPCS = "rpcs";
+
+	/** Number of JavaScript calls executed on the client, recorded once per round trip. */
+	String JS_CALLS = "js-calls";
+
+	/** Number of calls enqueued by the data communicator, recorded once per round trip. */
+	String ENQUEUED_CALLS = "enqueued-calls";
+
+	/** Size of the JSON sent to the client, recorded once per round trip. */
+	String JSON_BYTES = "json-bytes";
+
+	/**
+	 * Metrics dropping all the measurements.
+	 */
+	GridMetrics NO_OP = new GridMetrics() {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void recordTime(String gridId, String operation, long nanos) {
+		}
+
+		@Override
+		public void recordValue(String gridId, String name, long value) {
+		}
+
+		private Object readResolve() {
+			return NO_OP;
+		}
+	};
+
+	/**
+	 * Records the duration of an operation.
+	 * 
+	 * @param gridId
+	 *            the id of the grid
+	 * @param operation
+	 *            the operation, e.g. {@link #FETCH}
+	 * @param nanos
+	 *            the duration, in nanoseconds
+	 */
+	void recordTime(String gridId, String operation, long nanos);
+
+	/**
+	 * Records a value, e.g. a number of rows.
+	 * 
+	 * @param gridId
+	 *            the id of the grid
+	 * @param name
+	 *            the name of the value, e.g. {@link #ROWS_SENT}
+	 * @param value
+	 *            the value
+	 */
+	void recordValue(String gridId, String name, long value);
+}
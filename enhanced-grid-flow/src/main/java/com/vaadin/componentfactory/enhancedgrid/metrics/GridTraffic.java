@@ -0,0 +1,127 @@
+package com.vaadin.componentfactory.enhancedgrid.metrics;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+
+import elemental.json.JsonValue;
+
+/**
+ * Client communication caused by one interaction with an {@code EnhancedGrid},
+ * i.e. by one server round trip: the calls received from the client, the
+ * JavaScript executed on the grid, the calls enqueued by its data
+ * communicator, and the size of the JSON sent along with them.
+ * <p>
+ * The sizes are the ones of the JSON arguments, as serialized, without the
+ * framing of the UIDL response.
+ *
+ * @see com.vaadin.componentfactory.enhancedgrid.EnhancedGrid#getLastTraffic()
+ */
+@SuppressWarnings("serial")
+public class GridTraffic implements Serializable {
+
+	// size of an argument which is not JSON, e.g. an element sent as a node id
+	private static final int REFERENCE_BYTES = 8;
+
+	private int rpcs;
+
+	private int jsCalls;
+
+	private int enqueuedCalls;
+
+	private long jsonBytes;
+
+	/**
+	 * Count a call received from the client, e.g. a requested range.
+	 */
+	public void countRpc() {
+		rpcs++;
+	}
+
+	/**
+	 * Count a JavaScript expression or function executed on the client.
+	 *
+	 * @param expression
+	 *            the expression or function name
+	 * @param arguments
+	 *            the arguments sent along
+	 */
+	public void countJsCall(String expression, Serializable... arguments) {
+		jsCalls++;
+		jsonBytes += expression.length() + sizeOf(arguments);
+	}
+
+	/**
+	 * Count a call enqueued by the update queue of the data communicator, sent
+	 * once the update is committed.
+	 *
+	 * @param name
+	 *            the name of the connector function
+	 * @param arguments
+	 *            the arguments sent along
+	 */
+	public void countEnqueuedCall(String name, Serializable... arguments) {
+		enqueuedCalls++;
+		jsonBytes += name.length() + sizeOf(arguments);
+	}
+
+	public int getRpcs() {
+		return rpcs;
+	}
+
+	public int getJsCalls() {
+		return jsCalls;
+	}
+
+	public int getEnqueuedCalls() {
+		return enqueuedCalls;
+	}
+
+	public long getJsonBytes() {
+		return jsonBytes;
+	}
+
+	public boolean isEmpty() {
+		return rpcs == 0 && jsCalls == 0 && enqueuedCalls == 0;
+	}
+
+	private static long sizeOf(Serializable[] arguments) {
+		long bytes = 0;
+		for (Serializable argument : arguments) {
+			if (argument instanceof JsonValue) {
+				bytes += ((JsonValue) argument).toJson().length();
+			} else if (argument instanceof String) {
+				bytes += ((String) argument).length() + 2;
+			} else if (argument == null || argument instanceof Number || argument instanceof Boolean) {
+				bytes += String.valueOf(argument).length();
+			} else {
+				bytes += REFERENCE_BYTES;
+			}
+		}
+		return bytes;
+	}
+
+	@Override
+	public String toString() {
+		return rpcs + " rpcs, " + jsCalls + " js calls, " + enqueuedCalls + " enqueued calls, " + jsonBytes
+				+ " json bytes";
+	}
+}
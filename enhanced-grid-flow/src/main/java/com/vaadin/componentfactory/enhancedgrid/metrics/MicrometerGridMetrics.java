@@ -0,0 +1,118 @@
+package com.vaadin.componentfactory.enhancedgrid.metrics;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link GridMetrics} publishing the measurements to a Micrometer
+ * {@link MeterRegistry}, as timers and distribution summaries named
+ * {@code enhanced.grid.<operation>} and tagged with {@code grid}. The meters
+ * are registered on first use and kept by operation and grid id.
+ * <p>
+ * Micrometer is an optional dependency of the add-on, it has to be added to the
+ * application to use this class.
+ * <p>
+ * The registry is not serializable. Set these metrics with
+ * {@code EnhancedGrid.setDefaultMetrics(GridMetrics)} rather than on each grid
+ * when the sessions are serialized: a deserialized instance drops the
+ * measurements, and logs a warning when deserialized.
+ */
+@SuppressWarnings("serial")
+public class MicrometerGridMetrics implements GridMetrics {
+
+	private static final Logger log = LoggerFactory.getLogger(MicrometerGridMetrics.class);
+
+	private static final String PREFIX = "enhanced.grid.";
+
+	private static final String GRID_TAG = "grid";
+
+	private final transient MeterRegistry registry;
+
+	/**
+	 * The timers by operation and grid id.
+	 */
+	private transient Map<String, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+
+	/**
+	 * The distribution summaries by name and grid id.
+	 */
+	private transient Map<String, Map<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+	public MicrometerGridMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void recordTime(String gridId, String operation, long nanos) {
+		if (registry != null) {
+			getTimer(gridId, operation).record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public void recordValue(String gridId, String name, long value) {
+		if (registry != null) {
+			getSummary(gridId, name).record(value);
+		}
+	}
+
+	private Timer getTimer(String gridId, String operation) {
+		Map<String, Timer> gridTimers = timers.computeIfAbsent(operation, o -> new ConcurrentHashMap<>());
+		Timer timer = gridTimers.get(gridId);
+		if (timer == null) {
+			timer = gridTimers.computeIfAbsent(gridId,
+					id -> Timer.builder(PREFIX + operation).tag(GRID_TAG, id).register(registry));
+		}
+		return timer;
+	}
+
+	private DistributionSummary getSummary(String gridId, String name) {
+		Map<String, DistributionSummary> gridSummaries = summaries.computeIfAbsent(name,
+				n -> new ConcurrentHashMap<>());
+		DistributionSummary summary = gridSummaries.get(gridId);
+		if (summary == null) {
+			summary = gridSummaries.computeIfAbsent(gridId,
+					id -> DistributionSummary.builder(PREFIX + name).tag(GRID_TAG, id).register(registry));
+		}
+		return summary;
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		timers = new ConcurrentHashMap<>();
+		summaries = new ConcurrentHashMap<>();
+		log.warn("The Micrometer grid metrics were deserialized without their registry, "
+				+ "the grid measurements are dropped. Use EnhancedGrid.setDefaultMetrics "
+				+ "when the sessions are serialized.");
+	}
+}
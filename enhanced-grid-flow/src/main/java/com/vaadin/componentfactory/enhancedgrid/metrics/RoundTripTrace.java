@@ -0,0 +1,80 @@
+package com.vaadin.componentfactory.enhancedgrid.metrics;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Time spent by an {@code EnhancedGrid} in each stage of its data communication
+ * (count, fetch, data generators, ...) during one round trip.
+ *
+ * @see GridInstrumentation#setSlowOperationThreshold(java.time.Duration)
+ */
+@SuppressWarnings("serial")
+class RoundTripTrace implements Serializable {
+
+	private final Map<String, long[]> stages = new LinkedHashMap<>();
+
+	private long totalNanos = 0;
+
+	private int firstRow = -1;
+
+	private int lastRow = -1;
+
+	void add(String stage, long nanos) {
+		long[] stageTime = stages.computeIfAbsent(stage, s -> new long[2]);
+		stageTime[0] += nanos;
+		stageTime[1]++;
+		totalNanos += nanos;
+	}
+
+	void addRange(int offset, int limit) {
+		firstRow = firstRow < 0 ? offset : Math.min(firstRow, offset);
+		lastRow = Math.max(lastRow, offset + limit - 1);
+	}
+
+	/**
+	 * @return the sum of the time spent in all the stages
+	 */
+	long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * @return the time and number of calls of each stage, e.g. "count 12.1 ms (1 calls), fetch 80.4 ms (2 calls)"
+	 */
+	String describeStages() {
+		return stages.entrySet().stream()
+				.map(stage -> String.format("%s %.1f ms (%d calls)", stage.getKey(),
+						stage.getValue()[0] / 1_000_000d, stage.getValue()[1]))
+				.collect(Collectors.joining(", "));
+	}
+
+	/**
+	 * @return the rows fetched, e.g. "50-99"
+	 */
+	String describeRange() {
+		return firstRow < 0 ? "none" : firstRow + "-" + lastRow;
+	}
+}
@@ -0,0 +1,87 @@
+package com.vaadin.componentfactory.enhancedgrid.metrics;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * The instrumentations of the grids attached to the UIs of a session, kept as a
+ * session attribute.
+ * <p>
+ * The grids unregister on detach. They are only weakly referenced, so that a grid
+ * whose detach is never notified (e.g. a UI dropped along with an expired
+ * session) is not kept alive by the session.
+ */
+@SuppressWarnings("serial")
+class SessionGrids implements Serializable {
+
+	private transient Set<GridInstrumentation> grids = newWeakSet();
+
+	static void register(VaadinSession session, GridInstrumentation instrumentation) {
+		SessionGrids sessionGrids = session.getAttribute(SessionGrids.class);
+		if (sessionGrids == null) {
+			sessionGrids = new SessionGrids();
+			session.setAttribute(SessionGrids.class, sessionGrids);
+		}
+		sessionGrids.grids.add(instrumentation);
+	}
+
+	static void unregister(VaadinSession session, GridInstrumentation instrumentation) {
+		SessionGrids sessionGrids = session != null ? session.getAttribute(SessionGrids.class) : null;
+		if (sessionGrids != null) {
+			sessionGrids.grids.remove(instrumentation);
+		}
+	}
+
+	/**
+	 * @return a copy of the instrumentations registered in the session
+	 */
+	static List<GridInstrumentation> get(VaadinSession session) {
+		SessionGrids sessionGrids = session.getAttribute(SessionGrids.class);
+		return sessionGrids != null ? new ArrayList<>(sessionGrids.grids) : Collections.emptyList();
+	}
+
+	private static Set<GridInstrumentation> newWeakSet() {
+		return Collections.newSetFromMap(new WeakHashMap<>());
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeObject(new ArrayList<>(grids));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		grids = newWeakSet();
+		grids.addAll((List<GridInstrumentation>) in.readObject());
+	}
+}
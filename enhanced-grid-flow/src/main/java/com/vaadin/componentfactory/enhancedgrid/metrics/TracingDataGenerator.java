@@ -0,0 +1,80 @@
+package com.vaadin.componentfactory.enhancedgrid.metrics;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.vaadin.flow.data.provider.CompositeDataGenerator;
+import com.vaadin.flow.data.provider.DataGenerator;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.shared.Registration;
+
+import elemental.json.JsonObject;
+
+/**
+ * Data generator timing the data generators of a grid, when its round trips are traced.
+ * <p>
+ * The data communicator is built before the grid creates its instrumentation, so
+ * the instrumentation is looked up on the first generated row.
+ */
+@SuppressWarnings("serial")
+public class TracingDataGenerator<T> extends CompositeDataGenerator<T> {
+
+	private final SerializableSupplier<GridInstrumentation> instrumentationSupplier;
+
+	private final CompositeDataGenerator<T> dataGenerator;
+
+	private GridInstrumentation instrumentation;
+
+	public TracingDataGenerator(SerializableSupplier<GridInstrumentation> instrumentationSupplier,
+			CompositeDataGenerator<T> dataGenerator) {
+		this.instrumentationSupplier = instrumentationSupplier;
+		this.dataGenerator = dataGenerator;
+	}
+
+	@Override
+	public Registration addDataGenerator(DataGenerator<T> generator) {
+		return dataGenerator.addDataGenerator(generator);
+	}
+
+	@Override
+	public void generateData(T item, JsonObject jsonObject) {
+		if (instrumentation == null) {
+			instrumentation = instrumentationSupplier.get();
+		}
+		long start = instrumentation.startTraceTimer();
+		dataGenerator.generateData(item, jsonObject);
+		instrumentation.recordTraceTime(GridInstrumentation.TRACE_GENERATE, start);
+	}
+
+	@Override
+	public void refreshData(T item) {
+		dataGenerator.refreshData(item);
+	}
+
+	@Override
+	public void destroyData(T item) {
+		dataGenerator.destroyData(item);
+	}
+
+	@Override
+	public void destroyAllData() {
+		dataGenerator.destroyAllData();
+	}
+}
@@ -0,0 +1,55 @@
+package com.vaadin.componentfactory.enhancedtreegrid;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalDataProvider;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
+
+/**
+ * {@link HierarchicalDataProvider} able to load the children of several
+ * parents at once.
+ * <p>
+ * When the client requests ranges for several parents in the same round trip,
+ * {@link EnhancedTreeGrid} first hands all of them to
+ * {@link #prefetchChildren(List)}, so that the provider can load them with a
+ * single backend query and serve the following
+ * {@link #fetchChildren(HierarchicalQuery)} calls of that round trip from the
+ * loaded data.
+ *
+ * @param <T>
+ *            data type
+ * @param <F>
+ *            filter type
+ */
+public interface BatchedHierarchicalDataProvider<T, F> extends HierarchicalDataProvider<T, F> {
+
+	/**
+	 * Loads the children requested by the given queries. There is at most one
+	 * query per parent, with the range, filter and sorting the grid then
+	 * fetches for that parent.
+	 *
+	 * @param queries
+	 *            the queries about to be fetched, grouped by parent
+	 */
+	void prefetchChildren(List<HierarchicalQuery<T, F>> queries);
+}
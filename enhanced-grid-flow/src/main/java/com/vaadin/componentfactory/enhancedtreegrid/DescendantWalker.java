@@ -0,0 +1,263 @@
+package com.vaadin.componentfactory.enhancedtreegrid;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.vaadin.flow.data.provider.QuerySortOrder;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalDataProvider;
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
+
+/**
+ * Walks the descendants of an item of a {@link HierarchicalDataProvider}
+ * depth-first, without recursion.
+ * <p>
+ * The children of each parent are fetched with offset/limit queries, one page
+ * at a time, and each page is handed to the {@link Visitor} before the next
+ * one is fetched. Only one page per level of the walked branch is held, so
+ * the memory used does not depend on the size of the tree, and deep trees do
+ * not grow the stack.
+ * <p>
+ * The walker only uses the data provider, so it can run outside of the
+ * session lock when the data provider allows concurrent reads.
+ *
+ * @param <T>
+ *            the item type
+ */
+public class DescendantWalker<T> {
+
+	/**
+	 * Number of children fetched per query by default.
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 500;
+
+	/**
+	 * Receives the walked items.
+	 *
+	 * @param <T>
+	 *            the item type
+	 */
+	@FunctionalInterface
+	public interface Visitor<T> {
+
+		/**
+		 * Visits a page of children of the same parent.
+		 *
+		 * @param page
+		 *            the children
+		 */
+		void visitPage(List<T> page);
+
+		/**
+		 * Visits an item having children, after the page it belongs to.
+		 *
+		 * @param item
+		 *            the item
+		 */
+		default void visitParent(T item) {
+		}
+	}
+
+	/**
+	 * Position in the children of a parent.
+	 */
+	private static final class PageCursor<T> {
+
+		private final T parent;
+
+		private final int level;
+
+		private int offset;
+
+		private List<T> page;
+
+		private int index;
+
+		private PageCursor(T parent, int level) {
+			this.parent = parent;
+			this.level = level;
+		}
+	}
+
+	private final HierarchicalDataProvider<T, ?> dataProvider;
+
+	private final Object filter;
+
+	private int pageSize = DEFAULT_PAGE_SIZE;
+
+	private List<QuerySortOrder> backEndSorting = Collections.emptyList();
+
+	private Comparator<T> inMemorySorting;
+
+	private Predicate<T> descendInto;
+
+	/**
+	 * Creates a walker querying the data provider without filter, i.e. with
+	 * the filter the data provider is configured with, if any.
+	 *
+	 * @param dataProvider
+	 *            the data provider to fetch from
+	 */
+	public DescendantWalker(HierarchicalDataProvider<T, ?> dataProvider) {
+		this(dataProvider, null);
+	}
+
+	/**
+	 * Creates a walker querying the data provider with the given filter, e.g.
+	 * the one of the data communicator of a grid.
+	 *
+	 * @param dataProvider
+	 *            the data provider to fetch from
+	 * @param filter
+	 *            the filter of the queries, may be null
+	 */
+	public DescendantWalker(HierarchicalDataProvider<T, ?> dataProvider, Object filter) {
+		this.dataProvider = dataProvider;
+		this.filter = filter;
+	}
+
+	/**
+	 * Sets the number of children fetched per query.
+	 *
+	 * @param pageSize
+	 *            the page size, greater than zero
+	 * @return this walker
+	 */
+	public DescendantWalker<T> withPageSize(int pageSize) {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("The page size has to be greater than zero");
+		}
+		this.pageSize = pageSize;
+		return this;
+	}
+
+	/**
+	 * Sets the sorting of the queries, e.g. the one of the data communicator
+	 * of a grid, so that the items are walked in the displayed order.
+	 *
+	 * @param backEndSorting
+	 *            the back end sort orders, not {@code null}
+	 * @param inMemorySorting
+	 *            the in-memory sorting, may be null
+	 * @return this walker
+	 */
+	public DescendantWalker<T> withSorting(List<QuerySortOrder> backEndSorting,
+			Comparator<T> inMemorySorting) {
+		this.backEndSorting = backEndSorting;
+		this.inMemorySorting = inMemorySorting;
+		return this;
+	}
+
+	/**
+	 * Only descends into the parents accepted by the given predicate, e.g. the
+	 * expanded items of a tree grid. The other parents are neither visited nor
+	 * walked.
+	 *
+	 * @param descendInto
+	 *            the predicate, null to descend into every parent
+	 * @return this walker
+	 */
+	public DescendantWalker<T> withDescendInto(Predicate<T> descendInto) {
+		this.descendInto = descendInto;
+		return this;
+	}
+
+	/**
+	 * Gets the number of children fetched per query.
+	 *
+	 * @return the page size
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * Walks the descendants of the parent down to the given depth.
+	 * <p>
+	 * {@code depth} is the maximum distance between the parent and the walked
+	 * items: {@code walk(parent, 1, visitor)} only visits the children of the
+	 * parent, {@code walk(parent, 2, visitor)} also visits its grandchildren.
+	 * Every walked item is checked with
+	 * {@link HierarchicalDataProvider#hasChildren(Object)}, the ones having
+	 * children are passed to {@link Visitor#visitParent(Object)}.
+	 *
+	 * @param parent
+	 *            the parent, null for the root items
+	 * @param depth
+	 *            the maximum depth, {@link Integer#MAX_VALUE} for all the
+	 *            descendants
+	 * @param visitor
+	 *            the visitor
+	 */
+	public void walk(T parent, int depth, Visitor<T> visitor) {
+		if (depth <= 0) {
+			return;
+		}
+		Deque<PageCursor<T>> branch = new ArrayDeque<>();
+		branch.push(new PageCursor<>(parent, 1));
+		while (!branch.isEmpty()) {
+			PageCursor<T> cursor = branch.peek();
+			if (cursor.page == null || cursor.index == cursor.page.size()) {
+				if (cursor.page != null && cursor.page.size() < pageSize) {
+					branch.pop();
+					continue;
+				}
+				cursor.page = fetchChildren(cursor.parent, cursor.offset);
+				cursor.offset += cursor.page.size();
+				cursor.index = 0;
+				if (cursor.page.isEmpty()) {
+					branch.pop();
+					continue;
+				}
+				visitor.visitPage(Collections.unmodifiableList(cursor.page));
+			}
+			T item = cursor.page.get(cursor.index++);
+			if ((descendInto == null || descendInto.test(item)) && dataProvider.hasChildren(item)) {
+				visitor.visitParent(item);
+				if (cursor.level < depth) {
+					branch.push(new PageCursor<>(item, cursor.level + 1));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fetches a page of children of the given parent.
+	 *
+	 * @param parent
+	 *            the parent, null for the root items
+	 * @param offset
+	 *            the index of the first child
+	 * @return at most {@link #getPageSize()} children
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public List<T> fetchChildren(T parent, int offset) {
+		return (List<T>) ((HierarchicalDataProvider) dataProvider)
+				.fetchChildren(new HierarchicalQuery(offset, pageSize, backEndSorting, inMemorySorting, filter, parent))
+				.collect(Collectors.toList());
+	}
+}
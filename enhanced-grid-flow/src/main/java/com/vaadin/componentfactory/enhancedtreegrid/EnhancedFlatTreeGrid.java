@@ -0,0 +1,294 @@
+package com.vaadin.componentfactory.enhancedtreegrid;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+import com.vaadin.componentfactory.enhancedgrid.EnhancedColumn;
+import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.componentfactory.enhancedtreegrid.FlatTreeDataProvider.FlatTreeRow;
+import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.dependency.Uses;
+import com.vaadin.flow.component.treegrid.CollapseEvent;
+import com.vaadin.flow.component.treegrid.ExpandEvent;
+import com.vaadin.flow.component.treegrid.TreeGrid;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+import com.vaadin.flow.data.renderer.TemplateRenderer;
+import com.vaadin.flow.function.ValueProvider;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Alternative to {@link EnhancedTreeGrid} for hierarchies that are fully
+ * in memory.
+ * <p>
+ * Instead of requesting every expanded level separately, the visible part of
+ * the tree is flattened on the server by a {@link FlatTreeDataProvider} and
+ * sent to the client as a regular flat list. Expanding or collapsing a node
+ * costs a single round trip and any visible item can be scrolled to directly
+ * by its index.
+ * <p>
+ * Column filters are not applied to the hierarchy in this mode.
+ *
+ * @param <T>
+ *            the item type
+ */
+@SuppressWarnings("serial")
+@Uses(TreeGrid.class)
+public class EnhancedFlatTreeGrid<T> extends EnhancedGrid<T> {
+
+	private FlatTreeDataProvider<T> flatTreeDataProvider;
+
+	/**
+	 * Creates a new {@code EnhancedFlatTreeGrid} with empty tree data.
+	 */
+	public EnhancedFlatTreeGrid() {
+		this(new TreeData<>());
+	}
+
+	/**
+	 * Creates a new {@code EnhancedFlatTreeGrid} for the given tree data.
+	 *
+	 * @param treeData
+	 *            the tree data, not {@code null}
+	 */
+	public EnhancedFlatTreeGrid(TreeData<T> treeData) {
+		super();
+		setTreeData(treeData);
+	}
+
+	/**
+	 * Sets the tree data to display. All the items are initially collapsed.
+	 *
+	 * @param treeData
+	 *            the tree data, not {@code null}
+	 */
+	public void setTreeData(TreeData<T> treeData) {
+		setDataProvider(new FlatTreeDataProvider<>(treeData));
+	}
+
+	/**
+	 * Gets the tree data displayed by this grid.
+	 *
+	 * @return the tree data
+	 */
+	public TreeData<T> getTreeData() {
+		return flatTreeDataProvider.getTreeData();
+	}
+
+	@Override
+	public void setDataProvider(DataProvider<T, ?> dataProvider) {
+		if (!(dataProvider instanceof FlatTreeDataProvider)) {
+			throw new IllegalArgumentException(
+					"EnhancedFlatTreeGrid only accepts a FlatTreeDataProvider. "
+							+ "Use setTreeData(TreeData) instead.");
+		}
+		flatTreeDataProvider = (FlatTreeDataProvider<T>) dataProvider;
+		super.setDataProvider(dataProvider);
+	}
+
+	/**
+	 * Gets the data provider holding the flattened tree.
+	 *
+	 * @return the flat tree data provider
+	 */
+	public FlatTreeDataProvider<T> getFlatTreeDataProvider() {
+		return flatTreeDataProvider;
+	}
+
+	/**
+	 * Adds a new Hierarchy column to this grid with a value provider. The
+	 * value is converted to String when sent to the client by using
+	 * {@link String#valueOf(Object)}.
+	 * <p>
+	 * Hierarchy column is rendered by using 'vaadin-grid-tree-toggle' web
+	 * component, its level and expanded state come from the flattened tree.
+	 *
+	 * @param valueProvider
+	 *            the value provider
+	 * @return the created hierarchy column
+	 */
+	public EnhancedColumn<T> addHierarchyColumn(ValueProvider<T, ?> valueProvider) {
+		return addColumn(TemplateRenderer
+				.<T> of("<vaadin-grid-tree-toggle "
+						+ "leaf='[[item.leaf]]' expanded='[[item.expanded]]' level='[[item.level]]' "
+						+ "on-click='toggle'>[[item.name]]</vaadin-grid-tree-toggle>")
+				.withProperty("leaf", item -> !flatTreeDataProvider.hasChildren(item))
+				.withProperty("expanded", flatTreeDataProvider::isExpanded)
+				.withProperty("level", item -> {
+					FlatTreeRow<T> row = flatTreeDataProvider.getRow(item);
+					return row == null ? 0 : row.getDepth();
+				})
+				.withProperty("name", item -> String.valueOf(valueProvider.apply(item)))
+				.withEventHandler("toggle", this::toggle));
+	}
+
+	private void toggle(T item) {
+		if (!flatTreeDataProvider.hasChildren(item)) {
+			return;
+		}
+		if (isExpanded(item)) {
+			collapse(Arrays.asList(item), true);
+		} else {
+			expand(Arrays.asList(item), true);
+		}
+	}
+
+	/**
+	 * Adds an ExpandEvent listener to this grid.
+	 *
+	 * @param listener
+	 *            the listener to add
+	 * @return a registration for the listener
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Registration addExpandListener(
+			ComponentEventListener<ExpandEvent<T, EnhancedFlatTreeGrid<T>>> listener) {
+		return ComponentUtil.addListener(this, ExpandEvent.class,
+				(ComponentEventListener) listener);
+	}
+
+	/**
+	 * Adds a CollapseEvent listener to this grid.
+	 *
+	 * @param listener
+	 *            the listener to add
+	 * @return a registration for the listener
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public Registration addCollapseListener(
+			ComponentEventListener<CollapseEvent<T, EnhancedFlatTreeGrid<T>>> listener) {
+		return ComponentUtil.addListener(this, CollapseEvent.class,
+				(ComponentEventListener) listener);
+	}
+
+	/**
+	 * Expands the given items.
+	 *
+	 * @param items
+	 *            the items to expand
+	 */
+	@SuppressWarnings("unchecked")
+	public void expand(T... items) {
+		expand(Arrays.asList(items));
+	}
+
+	/**
+	 * Expands the given items.
+	 *
+	 * @param items
+	 *            the items to expand
+	 */
+	public void expand(Collection<T> items) {
+		expand(items, false);
+	}
+
+	protected void expand(Collection<T> items, boolean userOriginated) {
+		List<T> expandedItems = new ArrayList<>();
+		for (T item : items) {
+			if (flatTreeDataProvider.expand(item)) {
+				expandedItems.add(item);
+			}
+		}
+		if (!expandedItems.isEmpty()) {
+			flatTreeDataProvider.refreshRows();
+			fireEvent(new ExpandEvent<T, EnhancedFlatTreeGrid<T>>(this,
+					userOriginated, expandedItems));
+		}
+	}
+
+	/**
+	 * Collapses the given items.
+	 *
+	 * @param items
+	 *            the items to collapse
+	 */
+	@SuppressWarnings("unchecked")
+	public void collapse(T... items) {
+		collapse(Arrays.asList(items));
+	}
+
+	/**
+	 * Collapses the given items.
+	 *
+	 * @param items
+	 *            the items to collapse
+	 */
+	public void collapse(Collection<T> items) {
+		collapse(items, false);
+	}
+
+	protected void collapse(Collection<T> items, boolean userOriginated) {
+		List<T> collapsedItems = new ArrayList<>();
+		for (T item : items) {
+			if (flatTreeDataProvider.collapse(item)) {
+				collapsedItems.add(item);
+			}
+		}
+		if (!collapsedItems.isEmpty()) {
+			flatTreeDataProvider.refreshRows();
+			fireEvent(new CollapseEvent<T, EnhancedFlatTreeGrid<T>>(this,
+					userOriginated, collapsedItems));
+		}
+	}
+
+	/**
+	 * Returns whether a given item is expanded or collapsed.
+	 *
+	 * @param item
+	 *            the item to check
+	 * @return true if the item is expanded, false if collapsed
+	 */
+	public boolean isExpanded(T item) {
+		return flatTreeDataProvider.isExpanded(item);
+	}
+
+	/**
+	 * Expands the ancestors of the given item if needed and scrolls to it.
+	 *
+	 * @param item
+	 *            the item to scroll to, not {@code null}
+	 */
+	public void scrollToItem(T item) {
+		Objects.requireNonNull(item, "Item can't be null");
+		TreeData<T> treeData = getTreeData();
+		if (!treeData.contains(item)) {
+			return;
+		}
+		Deque<T> ancestors = new ArrayDeque<>();
+		for (T parent = treeData.getParent(item); parent != null; parent = treeData
+				.getParent(parent)) {
+			ancestors.push(parent);
+		}
+		expand(new ArrayList<>(ancestors), false);
+		int index = flatTreeDataProvider.indexOf(item);
+		// scroll once the new rows have been sent to the client
+		getElement().getNode().runWhenAttached(ui -> ui
+				.beforeClientResponse(this, context -> scrollToIndex(index)));
+	}
+}
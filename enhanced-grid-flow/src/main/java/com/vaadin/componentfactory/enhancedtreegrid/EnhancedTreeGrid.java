@@ -20,21 +20,35 @@ package com.vaadin.componentfactory.enhancedtreegrid;
  * #L%
  */
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.vaadin.componentfactory.enhancedgrid.EnhancedColumn;
 import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridInstrumentation;
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridMemoryFootprint;
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridMetrics;
+import com.vaadin.componentfactory.enhancedgrid.metrics.TracingDataGenerator;
 import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentEventListener;
@@ -76,10 +90,12 @@ import com.vaadin.flow.dom.DisabledUpdateMode;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.SerializableBiFunction;
 import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.function.SerializablePredicate;
 import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.internal.JsonUtils;
+import com.vaadin.flow.internal.Range;
 import com.vaadin.flow.shared.Registration;
 
 import elemental.json.JsonArray;
@@ -99,8 +115,11 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 		
 		@Override
 		public void set(int start, List<JsonValue> items, String parentKey) {
+		    EnhancedTreeGrid<?> grid = (EnhancedTreeGrid<?>) getEnhancedGrid(getData().getElement());
+		    long startTime = grid.getInstrumentation().startTraceTimer();
 		    enqueue("$connector.set", start,
 		            items.stream().collect(JsonUtils.asArray()), parentKey);
+		    grid.getInstrumentation().recordTraceTime(GridInstrumentation.TRACE_ENQUEUE, startTime);
 		}
 		
 		@Override
@@ -121,6 +140,13 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 		    enqueue("$connector.confirmParent", updateId, parentKey, levelSize);
 		    commit();
 		}
+		
+		@Override
+		public void enqueue(String name, Serializable... arguments) {
+		    EnhancedTreeGrid<?> grid = (EnhancedTreeGrid<?>) getEnhancedGrid(getData().getElement());
+		    grid.getInstrumentation().countEnqueuedCall(name, arguments);
+		    super.enqueue(name, arguments);
+		}
 	}
 	
 	private class TreeGridArrayUpdaterImpl implements TreeGridArrayUpdater {
@@ -156,6 +182,15 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 		}
 	}
 	
+	// estimated sizes of the entries of the tree grid maps, with the object layouts of a 64-bit JVM with 
+	// compressed oops like the estimates of EnhancedGrid: HashMap node (32), its table slots (8) and a 
+	// boxed Long or Integer value (16)
+	private static final int MAP_ENTRY_BYTES = 56;
+	
+	// LinkedHashSet entry (40) and its table slots (8), the value being shared; the entries of the 
+	// pending expanded items, in a HashSet, take 8 bytes less
+	private static final int SET_ENTRY_BYTES = 48;
+	
 	private final AtomicLong uniqueKeyCounter = new AtomicLong(0);
     private final Map<Object, Long> objectUniqueKeyMap = new HashMap<>();
 	
@@ -165,6 +200,15 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 
 	
 	private Registration dataProviderRegistration;
+
+	private final Set<Object> expandedItemIds = new LinkedHashSet<>();
+	private final Set<Object> pendingExpandedItemIds = new HashSet<>();
+	private final List<T> pendingExpandedItems = new ArrayList<>();
+	private Registration pendingExpandedItemsGenerator;
+	
+	private SerializableFunction<T, T> parentLookup;
+	private final Map<Object, Integer> visibleDescendantCounts = new HashMap<>();
+	private final Map<Object, Integer> siblingRowOffsets = new HashMap<>();
 	
 	/**
 	* Creates a new {@code EnhancedTreeGrid} without support for creating columns based
@@ -179,6 +223,7 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 		setUniqueKeyProperty("key");
 		getArrayUpdater().getUpdateQueueData()
 	        .setHasExpandedItems(getDataCommunicator()::hasExpandedItems);
+		addSortListener(event -> clearRowCountCaches());
 	}
 	
 	/**
@@ -198,6 +243,7 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 		setUniqueKeyProperty("key");
 		getArrayUpdater().getUpdateQueueData()
 	        .setHasExpandedItems(getDataCommunicator()::hasExpandedItems);
+		addSortListener(event -> clearRowCountCaches());
 	}
 	
 	@Override
@@ -222,21 +268,77 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 	}
 	
 	private static class TreeDataCommunicatorBuilder<T>
-	    extends DataCommunicatorBuilder<T, TreeGridArrayUpdater> {
-	
-	@Override
-	protected DataCommunicator<T> build(Element element,
-	        CompositeDataGenerator<T> dataGenerator,
-	        TreeGridArrayUpdater arrayUpdater,
-	        SerializableSupplier<ValueProvider<T, String>> uniqueKeyProviderSupplier) {
-	
-	    return new HierarchicalDataCommunicator<>(dataGenerator,
-	            arrayUpdater,
-	            data -> element.callJsFunction("$connector.updateHierarchicalData", data),
-	            element.getNode(), uniqueKeyProviderSupplier);
+			extends DataCommunicatorBuilder<T, TreeGridArrayUpdater> {
+
+		@Override
+		protected DataCommunicator<T> build(Element element,
+				CompositeDataGenerator<T> dataGenerator,
+				TreeGridArrayUpdater arrayUpdater,
+				SerializableSupplier<ValueProvider<T, String>> uniqueKeyProviderSupplier) {
+			return new MeteredHierarchicalDataCommunicator<>(element,
+					new TracingDataGenerator<>(
+							() -> ((EnhancedTreeGrid<?>) getEnhancedGrid(element)).getInstrumentation(), dataGenerator),
+					arrayUpdater, uniqueKeyProviderSupplier);
+		}
 	}
+
+	/**
+	 * Data communicator timing the fetch and count calls of the data provider,
+	 * and counting the requests of the client.
+	 */
+	private static class MeteredHierarchicalDataCommunicator<T>
+			extends HierarchicalDataCommunicator<T> {
+
+		private final Element element;
+
+		private MeteredHierarchicalDataCommunicator(Element element,
+				CompositeDataGenerator<T> dataGenerator,
+				TreeGridArrayUpdater arrayUpdater,
+				SerializableSupplier<ValueProvider<T, String>> uniqueKeyProviderSupplier) {
+			super(dataGenerator, arrayUpdater, data -> {
+				((EnhancedTreeGrid<?>) getEnhancedGrid(element))
+						.getInstrumentation().countJsCall("$connector.updateHierarchicalData", data);
+				element.callJsFunction("$connector.updateHierarchicalData", data);
+			}, element.getNode(), uniqueKeyProviderSupplier);
+			this.element = element;
+		}
+
+		@Override
+		public void setRequestedRange(int start, int length) {
+			((EnhancedTreeGrid<?>) getEnhancedGrid(element)).getInstrumentation().countRpc();
+			super.setRequestedRange(start, length);
+		}
+
+		@Override
+		public void confirmUpdate(int updateId) {
+			((EnhancedTreeGrid<?>) getEnhancedGrid(element)).getInstrumentation().countRpc();
+			super.confirmUpdate(updateId);
+		}
+
+		@Override
+		protected Stream<T> fetchFromProvider(int offset, int limit) {
+			GridInstrumentation instrumentation = ((EnhancedTreeGrid<?>) getEnhancedGrid(element)).getInstrumentation();
+			long start = instrumentation.startTimer();
+			Stream<T> items = super.fetchFromProvider(offset, limit);
+			instrumentation.recordTime(GridMetrics.FETCH, start);
+			instrumentation.recordTraceRange(offset, limit);
+			return instrumentation.countActiveRows(items);
+		}
+
+		@Override
+		public int getDataProviderSize() {
+			GridInstrumentation instrumentation = ((EnhancedTreeGrid<?>) getEnhancedGrid(element)).getInstrumentation();
+			long start = instrumentation.startTimer();
+			int size = super.getDataProviderSize();
+			instrumentation.recordTime(GridMetrics.COUNT, start);
+			return size;
+		}
+
+		private Object getCurrentFilter() {
+			return getFilter();
+		}
 	}
-	
+
 	/**
 	* Sets property name and value provider for unique key in row's generated
 	* JSON.
@@ -320,13 +422,16 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
         }
         dataProviderRegistration = hierarchicalDataProvider
                 .addDataProviderListener(e -> {
+                    clearRowCountCaches();
                     if (!(e instanceof DataChangeEvent.DataRefreshEvent)) {
                         // refreshAll was called
-                        getElement().executeJs(
+                        executeJs(
                                 "$0.$connector && $0.$connector.reset()",
                                 getElement());
                     }
                 });
+        expandedItemIds.clear();
+        clearRowCountCaches();
         super.setDataProvider(hierarchicalDataProvider);
     }
 	
@@ -700,6 +805,7 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 	@ClientCallable(DisabledUpdateMode.ALWAYS)
 	private void setParentRequestedRange(int start, int length,
 	    String parentKey) {
+		getInstrumentation().countRpc();
 		T item = getDataCommunicator().getKeyMapper().get(parentKey);
 		if (item != null) {
 		    getDataCommunicator().setParentRequestedRange(start, length, item);
@@ -708,16 +814,72 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 	
 	@ClientCallable(DisabledUpdateMode.ALWAYS)
 	private void setParentRequestedRanges(JsonArray array) {
+		getInstrumentation().countRpc();
+		// the ranges are grouped by parent before merging the touching ones
+		Map<String, List<Range>> rangesByParentKey = new LinkedHashMap<>();
 		for (int index = 0; index < array.length(); index++) {
-		    JsonObject object = array.getObject(index);
-		    setParentRequestedRange((int) object.getNumber("firstIndex"),
-		            (int) object.getNumber("size"),
-		            object.getString("parentKey"));
+			JsonObject object = array.getObject(index);
+			rangesByParentKey.computeIfAbsent(object.getString("parentKey"), parentKey -> new ArrayList<>())
+					.add(Range.withLength((int) object.getNumber("firstIndex"), (int) object.getNumber("size")));
 		}
+		rangesByParentKey.replaceAll((parentKey, ranges) -> mergeRanges(ranges));
+		
+		Map<T, List<Range>> rangesByParent = new LinkedHashMap<>();
+		rangesByParentKey.forEach((parentKey, ranges) -> {
+		    T item = getDataCommunicator().getKeyMapper().get(parentKey);
+		    if (item != null) {
+		        rangesByParent.put(item, ranges);
+		    }
+		});
+		prefetchChildren(rangesByParent);
+		rangesByParent.forEach((item, ranges) -> ranges
+		        .forEach(range -> getDataCommunicator().setParentRequestedRange(
+		                range.getStart(), range.length(), item)));
+	}
+	
+	/**
+	 * Merges the overlapping or adjacent ranges, whatever the order they were
+	 * received in. The disjoint ones are kept, sorted by start.
+	 */
+	static List<Range> mergeRanges(List<Range> ranges) {
+		ranges.sort(Comparator.comparingInt(Range::getStart));
+		List<Range> merged = new ArrayList<>(ranges.size());
+		for (Range range : ranges) {
+			Range last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+			if (last != null && range.getStart() <= last.getEnd()) {
+				merged.set(merged.size() - 1, last.combineWith(range));
+			} else {
+				merged.add(range);
+			}
+		}
+		return merged;
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private void prefetchChildren(Map<T, List<Range>> rangesByParent) {
+		HierarchicalDataProvider<T, ?> dataProvider = getDataProvider();
+		if (rangesByParent.size() < 2
+		        || !(dataProvider instanceof BatchedHierarchicalDataProvider)
+		        || !(getDataCommunicator() instanceof MeteredHierarchicalDataCommunicator)) {
+		    return;
+		}
+		// the communicator keeps the last range requested for a parent and
+		// fetches it with its current filter and sorting
+		Object filter = ((MeteredHierarchicalDataCommunicator<T>) getDataCommunicator())
+		        .getCurrentFilter();
+		List<HierarchicalQuery> queries = new ArrayList<>(rangesByParent.size());
+		rangesByParent.forEach((item, ranges) -> {
+		    Range range = ranges.get(ranges.size() - 1);
+		    queries.add(new HierarchicalQuery(range.getStart(), range.length(),
+		            getDataCommunicator().getBackEndSorting(),
+		            getDataCommunicator().getInMemorySorting(), filter, item));
+		});
+		((BatchedHierarchicalDataProvider) dataProvider).prefetchChildren(queries);
 	}
 	
 	@ClientCallable(DisabledUpdateMode.ONLY_WHEN_ENABLED)
 	private void updateExpandedState(String key, boolean expanded) {
+		getInstrumentation().countRpc();
 		T item = getDataCommunicator().getKeyMapper().get(key);
 		if (item != null) {
 		    if (expanded) {
@@ -730,6 +892,7 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 	
 	@ClientCallable(DisabledUpdateMode.ALWAYS)
 	private void confirmParentUpdate(int id, String parentKey) {
+		getInstrumentation().countRpc();
 		getDataCommunicator().confirmUpdate(id, parentKey);
 	}
 	
@@ -770,7 +933,10 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 	*            operation is user originated, {@code false} otherwise.
 	*/
 	protected void expand(Collection<T> items, boolean userOriginated) {
+		long start = getInstrumentation().startTimer();
 		Collection<T> expandedItems = getDataCommunicator().expand(items);
+		addExpandedItemIds(expandedItems);
+		getInstrumentation().recordTime(GridMetrics.EXPAND, start);
 		fireEvent(new ExpandEvent<T, EnhancedTreeGrid<T>>(this, userOriginated,
 	        expandedItems));
 	}
@@ -814,8 +980,77 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 	* @since 8.4
 	*/
 	public void expandRecursively(Collection<T> items, int depth) {
-		getDataCommunicator()
-	        .expand(getItemsWithChildrenRecursively(items, depth));
+		long start = getInstrumentation().startTimer();
+		addExpandedItemIds(getDataCommunicator()
+	        .expand(getItemsWithChildrenRecursively(items, depth)));
+		getInstrumentation().recordTime(GridMetrics.EXPAND, start);
+	}
+	
+	/**
+	* Expands the given items and their children recursively until the given
+	* depth, walking down the hierarchy outside of the session lock.
+	* <p>
+	* The items having children are collected with the executor, from the data 
+	* provider set when called, and expanded in 
+	* {@link com.vaadin.flow.component.UI#access(com.vaadin.flow.server.Command)}, 
+	* unless the data provider has been changed in the meantime. The data provider 
+	* has to allow concurrent reads, and the application has to use push or 
+	* polling for the expanded rows to be shown before the next request of the user.
+	* <p>
+	* This method will <i>not</i> fire events for expanded nodes.
+	*
+	* @param items
+	*            the items to expand recursively
+	* @param depth
+	*            the maximum depth of recursion
+	* @param executor
+	*            the executor walking down the hierarchy
+	* @return a future completed once the items are expanded
+	* @see #expandRecursively(Collection, int)
+	*/
+	public CompletableFuture<Void> expandRecursivelyAsync(Collection<T> items, int depth, Executor executor) {
+		HierarchicalDataProvider<T, ?> dataProvider = getDataProvider();
+		List<T> roots = new ArrayList<>(items);
+		return runOutsideLock(executor, () -> collectItemsWithChildren(dataProvider, roots, depth),
+				itemsWithChildren -> {
+					if (getDataProvider() != dataProvider) {
+						return;
+					}
+					long start = getInstrumentation().startTimer();
+					addExpandedItemIds(getDataCommunicator().expand(itemsWithChildren));
+					getInstrumentation().recordTime(GridMetrics.EXPAND, start);
+				});
+	}
+	
+	/**
+	* Counterpart of {@link #getItemsWithChildrenRecursively(Collection, int)} walking 
+	* the descendants with a {@link DescendantWalker}, one page of children at a time. 
+	* It only uses the data provider, so that it can run outside of the session lock.
+	*/
+	private static <T> List<T> collectItemsWithChildren(HierarchicalDataProvider<T, ?> dataProvider,
+			Collection<T> items, int depth) {
+		List<T> itemsWithChildren = new ArrayList<>();
+		if (depth < 0) {
+			return itemsWithChildren;
+		}
+		DescendantWalker<T> walker = new DescendantWalker<>(dataProvider);
+		DescendantWalker.Visitor<T> visitor = new DescendantWalker.Visitor<T>() {
+			@Override
+			public void visitPage(List<T> page) {
+			}
+
+			@Override
+			public void visitParent(T item) {
+				itemsWithChildren.add(item);
+			}
+		};
+		for (T item : items) {
+			if (dataProvider.hasChildren(item)) {
+				itemsWithChildren.add(item);
+				walker.walk(item, depth, visitor);
+			}
+		}
+		return itemsWithChildren;
 	}
 	
 	/**
@@ -853,7 +1088,10 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 	*            operation is user originated, {@code false} otherwise.
 	*/
 	protected void collapse(Collection<T> items, boolean userOriginated) {
+		long start = getInstrumentation().startTimer();
 		Collection<T> collapsedItems = getDataCommunicator().collapse(items);
+		removeExpandedItemIds(collapsedItems);
+		getInstrumentation().recordTime(GridMetrics.COLLAPSE, start);
 		fireEvent(new CollapseEvent<T, EnhancedTreeGrid<T>>(this, userOriginated,
 	        collapsedItems));
 	}
@@ -897,8 +1135,10 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 	* @since 8.4
 	*/
 	public void collapseRecursively(Collection<T> items, int depth) {
-		getDataCommunicator()
-	        .collapse(getItemsWithChildrenRecursively(items, depth));
+		long start = getInstrumentation().startTimer();
+		removeExpandedItemIds(getDataCommunicator()
+	        .collapse(getItemsWithChildrenRecursively(items, depth)));
+		getInstrumentation().recordTime(GridMetrics.COLLAPSE, start);
 	}
 	
 	/**
@@ -947,6 +1187,85 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
 		return getDataCommunicator().isExpanded(item);
 	}
 	
+	/**
+	* Gets the ids of the currently expanded items, as returned by
+	* {@link DataProvider#getId(Object)}.
+	* <p>
+	* The returned set can be kept (e.g. in the session) and given back to
+	* {@link #restoreExpandedItemIds(Collection)} to bring the grid back to the
+	* same expanded state. Only expansions done through the methods of this
+	* grid (or by the user) are tracked.
+	*
+	* @return an unmodifiable snapshot of the expanded item ids
+	*/
+	public Set<Object> getExpandedItemIds() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(expandedItemIds));
+	}
+	
+	/**
+	* Restores an expanded state captured with {@link #getExpandedItemIds()}.
+	* <p>
+	* The items are not expanded up front: an item is expanded only once it
+	* is fetched to be displayed, so only the parts of the tree the user
+	* actually sees are loaded. Ids of items that are never displayed stay
+	* pending until they are, or until the next restore.
+	*
+	* @param itemIds
+	*            the ids of the items to expand, not {@code null}
+	*/
+	public void restoreExpandedItemIds(Collection<?> itemIds) {
+		Objects.requireNonNull(itemIds, "Item ids can't be null");
+		pendingExpandedItemIds.clear();
+		pendingExpandedItems.clear();
+		itemIds.stream().filter(id -> !expandedItemIds.contains(id))
+		        .forEach(pendingExpandedItemIds::add);
+		if (pendingExpandedItemIds.isEmpty()) {
+			return;
+		}
+		if (pendingExpandedItemsGenerator == null) {
+			pendingExpandedItemsGenerator = addDataGenerator(
+			        this::expandPendingItem);
+		}
+		// rows already sent to the client need to go through the generator again
+		getDataCommunicator().reset();
+	}
+	
+	private void expandPendingItem(T item, JsonObject jsonObject) {
+		if (pendingExpandedItemIds.isEmpty()
+		        || !pendingExpandedItemIds.remove(getDataProvider().getId(item))) {
+			return;
+		}
+		pendingExpandedItems.add(item);
+		if (pendingExpandedItems.size() == 1) {
+			// don't change the hierarchy while the data communicator is flushing
+			getElement().getNode().runWhenAttached(ui -> ui
+			        .beforeClientResponse(this, context -> expandPendingItems()));
+		}
+	}
+	
+	private void expandPendingItems() {
+		if (pendingExpandedItems.isEmpty()) {
+			return;
+		}
+		List<T> items = new ArrayList<>(pendingExpandedItems);
+		pendingExpandedItems.clear();
+		expand(items, false);
+	}
+	
+	private void addExpandedItemIds(Collection<T> items) {
+		clearRowCountCaches();
+		items.forEach(item -> expandedItemIds.add(getDataProvider().getId(item)));
+	}
+	
+	private void removeExpandedItemIds(Collection<T> items) {
+		clearRowCountCaches();
+		items.forEach(item -> {
+			Object id = getDataProvider().getId(item);
+			expandedItemIds.remove(id);
+			pendingExpandedItemIds.remove(id);
+		});
+	}
+	
 	@Override
 	public HierarchicalDataCommunicator<T> getDataCommunicator() {
 		return (HierarchicalDataCommunicator<T>) super.getDataCommunicator();
@@ -967,7 +1286,7 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
      * not know about the complete hierarchy. Without the knowledge of the
      * complete hierarchy, {@link TreeGrid} canâ€™t reliably calculate an exact
      * scroll position. <b>This uncertainty makes this method unreliable and so
-     * should be avoided.</b>
+     * should be avoided.</b> Use {@link #scrollToItem(Object)} instead.
      *
      * @param rowIndex
      *            zero based index of the item to scroll to in the current view.
@@ -977,6 +1296,156 @@ public class EnhancedTreeGrid<T> extends EnhancedGrid<T> implements HasHierarchi
         super.scrollToIndex(rowIndex);
     }
 	
+	/**
+	* Sets the function returning the parent of an item, or {@code null} for
+	* root items. It is used by {@link #scrollToItem(Object)} to find the
+	* ancestors of an item.
+	* <p>
+	* It is not needed when the data provider is a {@link TreeDataProvider}.
+	*
+	* @param parentLookup
+	*            the parent lookup function
+	*/
+	public void setParentLookup(SerializableFunction<T, T> parentLookup) {
+		this.parentLookup = parentLookup;
+	}
+	
+	/**
+	* Expands the ancestors of the given item and scrolls to it.
+	* <p>
+	* Only the path from the root to the item is expanded. The row index is
+	* the sum of the row offsets of the item and its ancestors below their
+	* parents. An offset is found by fetching the siblings placed before the
+	* node page by page, with the filter and sorting of the grid, and adding
+	* the visible rows below the expanded ones. The offsets of all the
+	* fetched siblings and the row counts are cached until the next expand,
+	* collapse, sort or data refresh. Nothing is scrolled if the item or one
+	* of its ancestors is filtered out.
+	*
+	* @param item
+	*            the item to scroll to, not {@code null}
+	* @throws IllegalStateException
+	*             if no parent lookup is available for the data provider
+	*/
+	public void scrollToItem(T item) {
+		Objects.requireNonNull(item, "Item can't be null");
+		SerializableFunction<T, T> lookup = getParentLookup();
+		List<T> path = new ArrayList<>();
+		for (T node = item; node != null; node = lookup.apply(node)) {
+			path.add(0, node);
+		}
+		
+		List<T> collapsedAncestors = path.subList(0, path.size() - 1).stream()
+		        .filter(ancestor -> !isExpanded(ancestor))
+		        .collect(Collectors.toList());
+		if (!collapsedAncestors.isEmpty()) {
+			expand(collapsedAncestors, false);
+		}
+		
+		DescendantWalker<T> walker = createDescendantWalker();
+		int index = 0;
+		T parent = null;
+		for (T node : path) {
+			int offset = getSiblingRowOffset(walker, parent, node);
+			if (offset < 0) {
+				// filtered out
+				return;
+			}
+			index += offset;
+			if (node != item) {
+				// the row of the ancestor itself
+				index++;
+			}
+			parent = node;
+		}
+		
+		int rowIndex = index;
+		// scroll once the expanded levels have been sent to the client
+		getElement().getNode().runWhenAttached(ui -> ui.beforeClientResponse(this,
+		        context -> super.scrollToIndex(rowIndex)));
+	}
+	
+	private SerializableFunction<T, T> getParentLookup() {
+		if (parentLookup != null) {
+			return parentLookup;
+		}
+		if (getDataProvider() instanceof TreeDataProvider) {
+			TreeData<T> treeData = ((TreeDataProvider<T>) getDataProvider()).getTreeData();
+			return treeData::getParent;
+		}
+		throw new IllegalStateException(
+		        "A parent lookup must be set with setParentLookup to scroll to an item "
+		                + "of a data provider which is not a TreeDataProvider");
+	}
+	
+	private DescendantWalker<T> createDescendantWalker() {
+		Object filter = getDataCommunicator() instanceof MeteredHierarchicalDataCommunicator
+		        ? ((MeteredHierarchicalDataCommunicator<T>) getDataCommunicator()).getCurrentFilter()
+		        : null;
+		return new DescendantWalker<>(getDataProvider(), filter).withSorting(
+		        getDataCommunicator().getBackEndSorting(),
+		        getDataCommunicator().getInMemorySorting())
+		        .withDescendInto(this::isExpanded);
+	}
+	
+	/**
+	* Gets the number of rows between the first child of the parent and the
+	* node, or -1 if the node is not a child of the parent.
+	*/
+	private int getSiblingRowOffset(DescendantWalker<T> walker, T parent, T node) {
+		Object nodeId = getDataProvider().getId(node);
+		Integer cachedOffset = siblingRowOffsets.get(nodeId);
+		if (cachedOffset != null) {
+			return cachedOffset;
+		}
+		int offset = 0;
+		for (int position = 0;; position += walker.getPageSize()) {
+			List<T> page = walker.fetchChildren(parent, position);
+			for (T sibling : page) {
+				Object siblingId = getDataProvider().getId(sibling);
+				siblingRowOffsets.put(siblingId, offset);
+				if (Objects.equals(siblingId, nodeId)) {
+					return offset;
+				}
+				offset += 1 + getVisibleDescendantCount(walker, sibling);
+			}
+			if (page.size() < walker.getPageSize()) {
+				return -1;
+			}
+		}
+	}
+	
+	private int getVisibleDescendantCount(DescendantWalker<T> walker, T item) {
+		if (!isExpanded(item)) {
+			return 0;
+		}
+		Object id = getDataProvider().getId(item);
+		Integer count = visibleDescendantCounts.get(id);
+		if (count == null) {
+			AtomicInteger rows = new AtomicInteger();
+			walker.walk(item, Integer.MAX_VALUE, page -> rows.addAndGet(page.size()));
+			count = rows.get();
+			visibleDescendantCounts.put(id, count);
+		}
+		return count;
+	}
+	
+	private void clearRowCountCaches() {
+		visibleDescendantCounts.clear();
+		siblingRowOffsets.clear();
+	}
+	
+	@Override
+	protected void estimateMemoryFootprint(GridMemoryFootprint footprint) {
+		super.estimateMemoryFootprint(footprint);
+		footprint.add(GridMemoryFootprint.UNIQUE_KEYS, objectUniqueKeyMap.size(),
+		        (long) objectUniqueKeyMap.size() * MAP_ENTRY_BYTES);
+		int expandedItems = expandedItemIds.size() + pendingExpandedItemIds.size();
+		footprint.add(GridMemoryFootprint.EXPANDED_ITEMS, expandedItems, (long) expandedItems * SET_ENTRY_BYTES);
+		int cachedCounts = visibleDescendantCounts.size() + siblingRowOffsets.size();
+		footprint.add(GridMemoryFootprint.CACHES, cachedCounts, (long) cachedCounts * MAP_ENTRY_BYTES);
+	}
+	
 	@Override
 	protected void applyFilterPredicate(SerializablePredicate<T> finalPredicate) {
 		DataProvider<T, ?> dataProvider = getDataProvider();
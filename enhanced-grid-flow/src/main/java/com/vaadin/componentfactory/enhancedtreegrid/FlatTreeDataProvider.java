@@ -0,0 +1,311 @@
+package com.vaadin.componentfactory.enhancedtreegrid;
+
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.data.provider.AbstractDataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+
+/**
+ * Data provider serving the visible part of an in-memory {@link TreeData} as
+ * a flat list.
+ * <p>
+ * The visible rows are kept in one indexed list of (item, depth, expanded)
+ * entries. Expanding or collapsing an item only inserts or removes the block
+ * of rows below it, so the client can fetch any range of the tree with plain
+ * offset/limit queries.
+ *
+ * @param <T>
+ *            the item type
+ */
+@SuppressWarnings("serial")
+public class FlatTreeDataProvider<T> extends AbstractDataProvider<T, Void> {
+
+	/**
+	 * A visible row of the flattened tree.
+	 *
+	 * @param <T>
+	 *            the item type
+	 */
+	public static final class FlatTreeRow<T> implements Serializable {
+
+		private final T item;
+
+		private final int depth;
+
+		private boolean expanded;
+
+		private int index = Integer.MAX_VALUE;
+
+		private FlatTreeRow(T item, int depth, boolean expanded) {
+			this.item = item;
+			this.depth = depth;
+			this.expanded = expanded;
+		}
+
+		public T getItem() {
+			return item;
+		}
+
+		public int getDepth() {
+			return depth;
+		}
+
+		public boolean isExpanded() {
+			return expanded;
+		}
+	}
+
+	private final TreeData<T> treeData;
+
+	private final List<FlatTreeRow<T>> rows = new ArrayList<>();
+
+	private final Map<T, FlatTreeRow<T>> visibleRows = new HashMap<>();
+
+	private final Set<T> expandedItems = new HashSet<>();
+
+	/**
+	 * Rows before this position have an up to date index. Inserting or
+	 * removing rows only moves it back, the indexes after it are assigned
+	 * again on the next lookup.
+	 */
+	private int indexedRows;
+
+	/**
+	 * Creates a new flat tree data provider for the given tree data. All the
+	 * items are initially collapsed.
+	 *
+	 * @param treeData
+	 *            the tree data, not {@code null}
+	 */
+	public FlatTreeDataProvider(TreeData<T> treeData) {
+		this.treeData = Objects.requireNonNull(treeData, "Tree data can't be null");
+		rebuildRows();
+	}
+
+	/**
+	 * Gets the tree data this provider serves.
+	 *
+	 * @return the tree data
+	 */
+	public TreeData<T> getTreeData() {
+		return treeData;
+	}
+
+	@Override
+	public boolean isInMemory() {
+		return true;
+	}
+
+	@Override
+	public int size(Query<T, Void> query) {
+		return rows.size();
+	}
+
+	@Override
+	public Stream<T> fetch(Query<T, Void> query) {
+		int from = Math.min(query.getOffset(), rows.size());
+		int to = (int) Math.min((long) from + query.getLimit(), rows.size());
+		List<T> items = new ArrayList<>(to - from);
+		for (FlatTreeRow<T> row : rows.subList(from, to)) {
+			items.add(row.getItem());
+		}
+		return items.stream();
+	}
+
+	/**
+	 * Gets the visible row of the given item.
+	 *
+	 * @param item
+	 *            the item
+	 * @return the row of the item, or {@code null} if the item is not
+	 *         visible
+	 */
+	public FlatTreeRow<T> getRow(T item) {
+		return visibleRows.get(item);
+	}
+
+	/**
+	 * Gets the index of the given item in the flattened tree.
+	 *
+	 * @param item
+	 *            the item
+	 * @return the index of the item, or -1 if the item is not visible
+	 */
+	public int indexOf(T item) {
+		FlatTreeRow<T> row = visibleRows.get(item);
+		return row == null ? -1 : positionOf(row);
+	}
+
+	/**
+	 * Returns whether the given item has children.
+	 *
+	 * @param item
+	 *            the item
+	 * @return true if the item has children
+	 */
+	public boolean hasChildren(T item) {
+		return !treeData.getChildren(item).isEmpty();
+	}
+
+	/**
+	 * Returns whether the given item is expanded.
+	 *
+	 * @param item
+	 *            the item
+	 * @return true if the item is expanded
+	 */
+	public boolean isExpanded(T item) {
+		return expandedItems.contains(item);
+	}
+
+	/**
+	 * Expands the given item. If the item is visible, the rows of its visible
+	 * descendants are inserted right after it. Nested items expanded before
+	 * keep their state.
+	 *
+	 * @param item
+	 *            the item to expand
+	 * @return true if the item was not expanded before and has children
+	 */
+	public boolean expand(T item) {
+		if (!hasChildren(item) || !expandedItems.add(item)) {
+			return false;
+		}
+		FlatTreeRow<T> row = visibleRows.get(item);
+		if (row != null) {
+			row.expanded = true;
+			int start = positionOf(row) + 1;
+			rows.addAll(start, collectVisibleDescendants(item, row.getDepth()));
+			indexedRows = Math.min(indexedRows, start);
+		}
+		return true;
+	}
+
+	/**
+	 * Collapses the given item. If the item is visible, the rows of all its
+	 * descendants are removed.
+	 *
+	 * @param item
+	 *            the item to collapse
+	 * @return true if the item was expanded before
+	 */
+	public boolean collapse(T item) {
+		if (!expandedItems.remove(item)) {
+			return false;
+		}
+		FlatTreeRow<T> row = visibleRows.get(item);
+		if (row != null) {
+			row.expanded = false;
+			int start = positionOf(row) + 1;
+			int end = start;
+			while (end < rows.size() && rows.get(end).getDepth() > row.getDepth()) {
+				visibleRows.remove(rows.get(end).getItem());
+				end++;
+			}
+			rows.subList(start, end).clear();
+			indexedRows = Math.min(indexedRows, start);
+		}
+		return true;
+	}
+
+	/**
+	 * Rebuilds the flattened tree after the tree data has been modified and
+	 * refreshes all the data.
+	 */
+	@Override
+	public void refreshAll() {
+		rebuildRows();
+		super.refreshAll();
+	}
+
+	/**
+	 * Notifies the listeners that rows have been inserted or removed by
+	 * {@link #expand(Object)} or {@link #collapse(Object)}. Unlike
+	 * {@link #refreshAll()}, the flattened tree is not rebuilt.
+	 */
+	public void refreshRows() {
+		super.refreshAll();
+	}
+
+	private int positionOf(FlatTreeRow<T> row) {
+		if (row.index < indexedRows && rows.get(row.index) == row) {
+			return row.index;
+		}
+		// the index of a row after the watermark may be the one it had before
+		// rows were inserted or removed above it, so the row itself is searched
+		while (indexedRows < rows.size()) {
+			FlatTreeRow<T> indexed = rows.get(indexedRows);
+			indexed.index = indexedRows++;
+			if (indexed == row) {
+				return indexed.index;
+			}
+		}
+		throw new IllegalStateException("The row of " + row.getItem() + " is not visible");
+	}
+
+	private void rebuildRows() {
+		indexedRows = 0;
+		rows.clear();
+		visibleRows.clear();
+		expandedItems.removeIf(item -> !treeData.contains(item));
+		rows.addAll(collectVisibleDescendants(null, -1));
+	}
+
+	/**
+	 * Collects the visible descendants of the given parent in display order,
+	 * without recursion.
+	 */
+	private List<FlatTreeRow<T>> collectVisibleDescendants(T parent, int parentDepth) {
+		List<FlatTreeRow<T>> block = new ArrayList<>();
+		Deque<Iterator<T>> levels = new ArrayDeque<>();
+		levels.push(treeData.getChildren(parent).iterator());
+		while (!levels.isEmpty()) {
+			Iterator<T> level = levels.peek();
+			if (!level.hasNext()) {
+				levels.pop();
+				continue;
+			}
+			T child = level.next();
+			boolean expanded = expandedItems.contains(child);
+			FlatTreeRow<T> row = new FlatTreeRow<>(child, parentDepth + levels.size(), expanded);
+			block.add(row);
+			visibleRows.put(child, row);
+			if (expanded) {
+				levels.push(treeData.getChildren(child).iterator());
+			}
+		}
+		return block;
+	}
+}
@@ -23,22 +23,28 @@ package com.vaadin.flow.component.grid;
 import com.vaadin.flow.component.AbstractField;
 import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.data.provider.DataCommunicator;
 import com.vaadin.flow.data.provider.DataProvider;
 import com.vaadin.flow.data.provider.Query;
 import com.vaadin.flow.data.provider.hierarchy.HierarchicalDataProvider;
-import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
 import com.vaadin.flow.data.selection.MultiSelect;
 import com.vaadin.flow.data.selection.MultiSelectionEvent;
 import com.vaadin.flow.data.selection.MultiSelectionListener;
 import com.vaadin.flow.data.selection.SelectionEvent;
 import com.vaadin.flow.data.selection.SelectionListener;
 import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.Range;
 import com.vaadin.flow.shared.Registration;
 import elemental.json.JsonObject;
 import com.vaadin.componentfactory.enhancedgrid.EnhancedGrid;
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridMetrics;
+import com.vaadin.componentfactory.enhancedtreegrid.DescendantWalker;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -46,15 +52,27 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 // todo jcg try to clean up this class
 public abstract class CustomAbstractGridMultiSelectionModel<T>
         extends Grid.AbstractGridExtension<T> implements GridMultiSelectionModel<T> {
 
+    /**
+     * Maximum number of rows selected at once by a shift-click range.
+     */
+    private static final int MAX_RANGE_SELECTION_SIZE = 10000;
+
     private final Set<T> selected;
+
+    /**
+     * Ids of the selected items, built on demand for
+     * {@link #isSelected(Object)} and dropped whenever the selection or the
+     * data provider changes.
+     */
+    private Set<Object> selectedIds;
+    private DataProvider<T, ?> selectedIdsDataProvider;
+
     private final CustomGridSelectionColumn selectionColumn;
     private SelectAllCheckboxVisibility selectAllCheckBoxVisibility;
 
@@ -69,7 +87,7 @@ public abstract class CustomAbstractGridMultiSelectionModel<T>
         super(grid);
         selected = new LinkedHashSet<>();
         selectionColumn = new CustomGridSelectionColumn(this::clientSelectAll,
-                this::clientDeselectAll);
+                this::clientDeselectAll, this::clientSelectRange);
         selectAllCheckBoxVisibility = SelectAllCheckboxVisibility.DEFAULT;
 
         selectionColumn
@@ -108,6 +126,7 @@ public abstract class CustomAbstractGridMultiSelectionModel<T>
         Set<T> oldSelection = new LinkedHashSet<>(selected);
         boolean added = selected.add(item);
         if (added) {
+            selectedIds = null;
             fireSelectionEvent(new MultiSelectionEvent<>(getGrid(),
                     getGrid().asMultiSelect(), oldSelection, true));
 
@@ -134,6 +153,7 @@ public abstract class CustomAbstractGridMultiSelectionModel<T>
         Set<T> oldSelection = new LinkedHashSet<>(selected);
         boolean removed = selected.remove(item);
         if (removed) {
+            selectedIds = null;
             fireSelectionEvent(new MultiSelectionEvent<>(getGrid(),
                     getGrid().asMultiSelect(), oldSelection, true));
         }
@@ -182,10 +202,15 @@ public abstract class CustomAbstractGridMultiSelectionModel<T>
 
     @Override
     public void selectAll() {
-        updateSelection(
-                getGrid().getDataCommunicator().getDataProvider()
-                        .fetch(new Query<>()).collect(Collectors.toSet()),
-                Collections.emptySet());
+        DataProvider<T, ?> dataProvider = getGrid().getDataCommunicator()
+                .getDataProvider();
+        if (dataProvider instanceof HierarchicalDataProvider) {
+            selectAllHierarchical(
+                    (HierarchicalDataProvider<T, ?>) dataProvider, false);
+        } else {
+            updateSelection(dataProvider.fetch(new Query<>())
+                    .collect(Collectors.toSet()), Collections.emptySet());
+        }
         selectionColumn.setSelectAllCheckboxState(true);
     }
 
@@ -204,8 +229,21 @@ public abstract class CustomAbstractGridMultiSelectionModel<T>
 
     @Override
     public boolean isSelected(T item) {
-        return getSelectedItems().stream().anyMatch(selectedItem -> Objects
-            .equals(getItemId(selectedItem), getItemId(item)));
+        // called for each generated row, so the selection is not copied
+        return !selected.isEmpty() && getSelectedIds().contains(getItemId(item));
+    }
+
+    private Set<Object> getSelectedIds() {
+        DataProvider<T, ?> dataProvider = getGrid().getDataCommunicator()
+                .getDataProvider();
+        if (selectedIds == null || selectedIdsDataProvider != dataProvider) {
+            selectedIds = new HashSet<>(selected.size() * 2);
+            for (T item : selected) {
+                selectedIds.add(dataProvider.getId(item));
+            }
+            selectedIdsDataProvider = dataProvider;
+        }
+        return selectedIds;
     }
 
     @Override
@@ -337,56 +375,131 @@ public abstract class CustomAbstractGridMultiSelectionModel<T>
             // ignore event if the checkBox was meant to be hidden
             return;
         }
-        Stream<T> allItemsStream;
         DataProvider<T, ?> dataProvider = getGrid().getDataCommunicator()
                 .getDataProvider();
         if (dataProvider instanceof HierarchicalDataProvider) {
-            allItemsStream = fetchAllHierarchical(
-                    (HierarchicalDataProvider<T, ?>) dataProvider);
+            selectAllHierarchical(
+                    (HierarchicalDataProvider<T, ?>) dataProvider, true);
         } else {
-            allItemsStream = dataProvider.fetch(new Query<>());
+            doUpdateSelection(
+                    dataProvider.fetch(new Query<>())
+                            .collect(Collectors.toSet()),
+                    Collections.emptySet(), true);
         }
-        doUpdateSelection(allItemsStream.collect(Collectors.toSet()),
-                Collections.emptySet(), true);
         selectionColumn.setSelectAllCheckboxState(true);
     }
 
     /**
-     * Fetch all items from the given hierarchical data provider.
+     * Select all items of the given hierarchical data provider.
+     * <p>
+     * The descendants are walked depth-first by a {@link DescendantWalker} and
+     * added to the selection one page at a time, so neither the tree nor a
+     * copy of the selection is held in an intermediate collection.
      *
      * @param dataProvider
      *            the data provider to fetch from
-     * @return all items in the data provider
+     * @param userOriginated
+     *            whether the select all checkbox was checked on the client
      */
-    private Stream<T> fetchAllHierarchical(
-            HierarchicalDataProvider<T, ?> dataProvider) {
-        return fetchAllDescendants(null, dataProvider);
+    @SuppressWarnings("unchecked")
+    private void selectAllHierarchical(
+            HierarchicalDataProvider<T, ?> dataProvider, boolean userOriginated) {
+        EnhancedGrid<T> grid = (EnhancedGrid<T>) getGrid();
+        long start = startSelectionUpdateTimer();
+        int oldSize = selected.size();
+        // the id cache is kept in sync with the selection while walking
+        Set<Object> currentIds = getSelectedIds();
+        Set<T> activeAddedItems = new LinkedHashSet<>();
+
+        new DescendantWalker<>(dataProvider).walk(null, Integer.MAX_VALUE,
+                page -> {
+                    for (T item : page) {
+                        if (grid.isSelectable(item)
+                                && currentIds.add(getItemId(item))) {
+                            selected.add(item);
+                            if (grid.isInActiveRange(item)) {
+                                activeAddedItems.add(item);
+                            }
+                        }
+                    }
+                });
+
+        if (selected.size() == oldSize) {
+            return;
+        }
+        // the items selected before the walk come first in the selection
+        Set<T> oldSelection = new LinkedHashSet<>(oldSize * 2);
+        Iterator<T> selectedItems = selected.iterator();
+        for (int i = 0; i < oldSize; i++) {
+            oldSelection.add(selectedItems.next());
+        }
+        sendSelectionUpdate(activeAddedItems, Collections.emptySet());
+        fireSelectionEvent(new MultiSelectionEvent<>(getGrid(),
+                getGrid().asMultiSelect(), oldSelection, userOriginated));
+        recordSelectionUpdateTime(start);
     }
 
     /**
-     * Fetch all the descendants of the given parent item from the given data
-     * provider.
+     * Select the items between the anchor and the target row indexes, both
+     * included, as a range selected by shift-click on the client side.
+     * <p>
+     * The indexes are clamped to the rows of the grid and the items are
+     * fetched with one offset/limit query using the current filter and
+     * sorting of the data communicator. Like select all, ranges are only
+     * selected when the select all checkbox is visible, and up to
+     * {@value #MAX_RANGE_SELECTION_SIZE} rows. They are not supported for
+     * hierarchical data providers, nor when the grid filters and sorts its
+     * items on the client side, as the row indexes do not match the data
+     * provider's. Otherwise only the shift-clicked item is selected.
      *
-     * @param parent
-     *            the parent item to fetch descendants for
-     * @param dataProvider
-     *            the data provider to fetch from
-     * @return the stream of all descendant items
+     * @param anchorIndex
+     *            the index of the row clicked before
+     * @param targetIndex
+     *            the index of the shift-clicked row
+     * @param targetKey
+     *            the key of the shift-clicked item
      */
-    private Stream<T> fetchAllDescendants(T parent,
-            HierarchicalDataProvider<T, ?> dataProvider) {
-        if (parent != null && !dataProvider.hasChildren(parent)) {
-            return Stream.empty();
+    private void clientSelectRange(int anchorIndex, int targetIndex,
+            String targetKey) {
+        EnhancedGrid<T> grid = (EnhancedGrid<T>) getGrid();
+        DataCommunicator<T> dataCommunicator = grid.getDataCommunicator();
+        Range range = clampRange(anchorIndex, targetIndex,
+                dataCommunicator.getItemCount());
+        if (range.isEmpty() || range.length() > MAX_RANGE_SELECTION_SIZE
+                || !isSelectAllCheckboxVisible()
+                || dataCommunicator.getDataProvider() instanceof HierarchicalDataProvider
+                || grid.isClientSideFilteringActive()) {
+            T target = dataCommunicator.getKeyMapper().get(targetKey);
+            if (target != null) {
+                doUpdateSelection(Collections.singleton(target),
+                        Collections.emptySet(), true);
+            }
+            return;
         }
-        List<T> children = dataProvider
-                .fetchChildren(new HierarchicalQuery<>(null, parent))
-                .collect(Collectors.toList());
-        if (children.isEmpty()) {
-            return Stream.empty();
+        Set<T> rangeItems = grid.fetchRows(range.getStart(), range.length())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        doUpdateSelection(rangeItems, Collections.emptySet(), true);
+    }
+
+    /**
+     * Gets the rows between the anchor and the target indexes, both included,
+     * clamped to the rows of the grid.
+     *
+     * @param anchorIndex
+     *            the index of the row clicked before
+     * @param targetIndex
+     *            the index of the shift-clicked row
+     * @param size
+     *            the number of rows of the grid
+     * @return the range of rows, empty if the grid has no rows
+     */
+    static Range clampRange(int anchorIndex, int targetIndex, int size) {
+        if (size <= 0) {
+            return Range.emptyRange();
         }
-        return children.stream()
-                .flatMap(child -> Stream.concat(Stream.of(child),
-                        fetchAllDescendants(child, dataProvider)));
+        int first = Math.max(0, Math.min(Math.min(anchorIndex, targetIndex), size - 1));
+        int last = Math.max(0, Math.min(Math.max(anchorIndex, targetIndex), size - 1));
+        return Range.between(first, last + 1);
     }
 
     private void clientDeselectAll() {
@@ -400,35 +513,43 @@ public abstract class CustomAbstractGridMultiSelectionModel<T>
 
     private void doUpdateSelection(Set<T> addedItems, Set<T> removedItems,
             boolean userOriginated) {
-        Set<T> filteredAddedItems = addedItems.stream().filter(item -> ((EnhancedGrid) getGrid()).getSelectionPredicate().test(item)).collect(Collectors.toSet());
-        Map<Object, T> addedItemsMap = mapItemsById(filteredAddedItems);
+        EnhancedGrid<T> grid = (EnhancedGrid<T>) getGrid();
+        Map<Object, T> addedItemsMap = new LinkedHashMap<>();
+        for (T item : addedItems) {
+            if (grid.isSelectable(item)) {
+                addedItemsMap.put(getItemId(item), item);
+            }
+        }
         Map<Object, T> removedItemsMap = mapItemsById(removedItems);
-        addedItemsMap.keySet().stream().filter(removedItemsMap::containsKey)
-            .collect(Collectors.toList()).forEach(key -> {
-            addedItemsMap.remove(key);
-            removedItemsMap.remove(key);
-        });
+        // items both added and removed are left as they are
+        Iterator<Object> addedIds = addedItemsMap.keySet().iterator();
+        while (addedIds.hasNext()) {
+            if (removedItemsMap.remove(addedIds.next()) != null) {
+                addedIds.remove();
+            }
+        }
         doUpdateSelection(addedItemsMap,removedItemsMap,userOriginated);
     }
 
     private void doUpdateSelection(Map<Object, T> addedItems,
         Map<Object, T> removedItems, boolean userOriginated) {
 
-        Map<Object, T> selectedMap = mapItemsById(selected);
-        if (selectedMap.keySet().containsAll(addedItems.keySet()) && Collections
-            .disjoint(selectedMap.keySet(), removedItems.keySet())) {
+        long start = startSelectionUpdateTimer();
+
+        Set<Object> currentIds = getSelectedIds();
+        if (currentIds.containsAll(addedItems.keySet()) && Collections
+            .disjoint(currentIds, removedItems.keySet())) {
             return;
         }
+        Map<Object, T> selectedMap = mapItemsById(selected);
         Set<T> oldSelection = new LinkedHashSet<>(selected);
         removedItems.keySet().forEach(selectedMap::remove);
         selectedMap.putAll(addedItems);
         selected.clear();
         selected.addAll(selectedMap.values());
+        selectedIds = null;
 
-        sendSelectionUpdate(new LinkedHashSet<>(addedItems.values()),
-            getGrid()::doClientSideSelection);
-        sendSelectionUpdate(new LinkedHashSet<>(removedItems.values()),
-            getGrid()::doClientSideDeselection);
+        sendSelectionUpdate(addedItems.values(), removedItems.values());
 
         fireSelectionEvent(
             new MultiSelectionEvent<>(getGrid(), getGrid().asMultiSelect(),
@@ -436,25 +557,66 @@ public abstract class CustomAbstractGridMultiSelectionModel<T>
         if (!removedItems.isEmpty()) {
             selectionColumn.setSelectAllCheckboxState(false);
         }
+        recordSelectionUpdateTime(start);
+    }
+
+    private long startSelectionUpdateTimer() {
+        return ((EnhancedGrid<T>) getGrid()).getMetrics() == GridMetrics.NO_OP
+                ? 0 : System.nanoTime();
+    }
+
+    private void recordSelectionUpdateTime(long start) {
+        if (start != 0) {
+            EnhancedGrid<T> grid = (EnhancedGrid<T>) getGrid();
+            grid.getMetrics().recordTime(grid.getMetricsId(),
+                    GridMetrics.SELECTION_UPDATE, System.nanoTime() - start);
+        }
     }
 
     private Map<Object, T> mapItemsById(Set<T> items) {
-        return items.stream().collect(LinkedHashMap::new,
-            (map, item) -> map.put(this.getItemId(item), item), Map::putAll);
+        Map<Object, T> map = new LinkedHashMap<>(items.size() * 2);
+        for (T item : items) {
+            map.put(getItemId(item), item);
+        }
+        return map;
     }
 
-    private void sendSelectionUpdate(Set<T> updatedItems,
-            Consumer<Set<T>> clientSideUpdater) {
+    private void sendSelectionUpdate(Collection<T> addedItems,
+            Collection<T> removedItems) {
         // Avoid sending updates for the items that the client doesn't have.
         // This is important for the performance of e.g. selectAll.
-        Set<T> activeItems = updatedItems.stream()
-                .filter(getGrid()::isInActiveRange).collect(Collectors.toSet());
-        if (activeItems.isEmpty()) {
+        Set<T> activeAddedItems = getActiveItems(addedItems);
+        Set<T> activeRemovedItems = getActiveItems(removedItems);
+        if (activeAddedItems.isEmpty() && activeRemovedItems.isEmpty()) {
             return;
         }
 
-        activeItems.forEach(getGrid().getDataCommunicator()::refresh);
-        clientSideUpdater.accept(activeItems);
+        // the rows are sent again in one call, next to one selection and one
+        // deselection message, e.g. for all the rows of a range selection
+        List<T> activeItems = new ArrayList<>(
+                activeAddedItems.size() + activeRemovedItems.size());
+        activeItems.addAll(activeAddedItems);
+        activeItems.addAll(activeRemovedItems);
+        ((EnhancedGrid<T>) getGrid()).refreshActiveItems(activeItems);
+        if (!activeAddedItems.isEmpty()) {
+            getGrid().doClientSideSelection(activeAddedItems);
+        }
+        if (!activeRemovedItems.isEmpty()) {
+            getGrid().doClientSideDeselection(activeRemovedItems);
+        }
+    }
+
+    private Set<T> getActiveItems(Collection<T> items) {
+        if (items.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<T> activeItems = new LinkedHashSet<>();
+        for (T item : items) {
+            if (getGrid().isInActiveRange(item)) {
+                activeItems.add(item);
+            }
+        }
+        return activeItems;
     }
 
     private Object getItemId(T item) {
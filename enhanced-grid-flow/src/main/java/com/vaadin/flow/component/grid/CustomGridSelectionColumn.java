@@ -20,6 +20,9 @@ package com.vaadin.flow.component.grid;
  * #L%
  */
 
+import java.io.Serializable;
+
+import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.function.SerializableRunnable;
@@ -31,6 +34,27 @@ import com.vaadin.flow.function.SerializableRunnable;
 @JsModule("./src/custom-grid-flow-selection-column.js")
 public class CustomGridSelectionColumn extends GridSelectionColumn {
 
+    /**
+     * Receives the rows of a range shift-clicked on the client side.
+     */
+    @FunctionalInterface
+    public interface SelectRangeCallback extends Serializable {
+
+        /**
+         * Selects the rows between the anchor and the target indexes.
+         *
+         * @param anchorIndex
+         *            the index of the row clicked before
+         * @param targetIndex
+         *            the index of the shift-clicked row
+         * @param targetKey
+         *            the key of the shift-clicked item, to select it alone
+         *            when the range can't be selected
+         */
+        void selectRange(int anchorIndex, int targetIndex, String targetKey);
+    }
+
+    private SelectRangeCallback selectRangeCallback;
 
     /**
      * Constructs a new grid selection column configured to use the given
@@ -48,4 +72,33 @@ public class CustomGridSelectionColumn extends GridSelectionColumn {
         super(selectAllCallback,deselectAllCallback);
     }
 
+    /**
+     * Constructs a new grid selection column configured to use the given
+     * callbacks whenever the select all checkbox is toggled or a range of
+     * rows is shift-clicked on the client side.
+     *
+     * @param selectAllCallback
+     *            the runnable to run when the select all checkbox has been
+     *            checked
+     * @param deselectAllCallback
+     *            the runnable to run when the select all checkbox has been
+     *            unchecked
+     * @param selectRangeCallback
+     *            the callback receiving the anchor and target rows of a
+     *            range selection
+     */
+    public CustomGridSelectionColumn(SerializableRunnable selectAllCallback,
+                                     SerializableRunnable deselectAllCallback,
+                                     SelectRangeCallback selectRangeCallback) {
+        this(selectAllCallback, deselectAllCallback);
+        this.selectRangeCallback = selectRangeCallback;
+    }
+
+    @ClientCallable
+    private void selectRange(int anchorIndex, int targetIndex, String targetKey) {
+        if (selectRangeCallback != null) {
+            selectRangeCallback.selectRange(anchorIndex, targetIndex, targetKey);
+        }
+    }
+
 }
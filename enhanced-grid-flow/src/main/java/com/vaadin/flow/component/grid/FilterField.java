@@ -86,6 +86,17 @@ public class FilterField extends Popup {
 		}
 	}
 
+	/**
+	 * Sets the filter component without applying its current value.
+	 *
+	 * @param filterComponent
+	 */
+	public void setFilterComponent(Component filterComponent) {
+		this.filterComponent = filterComponent;
+		filterComponentDiv.removeAll();
+		filterComponentDiv.add(filterComponent);
+	}
+
 	public Component getFilterComponent() {
 		return filterComponent;
 	}
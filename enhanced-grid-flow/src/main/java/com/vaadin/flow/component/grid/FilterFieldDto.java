@@ -22,10 +22,22 @@ package com.vaadin.flow.component.grid;
 
 import java.util.function.Predicate;
 
+import elemental.json.JsonObject;
+
 public interface FilterFieldDto<T> {
 
 	Predicate<T> getFilterPredicate();
 	
 	boolean isEmpty();
 	
+	/**
+	 * Translate the filter into its client side description, used when the 
+	 * grid filters its items on the client side.
+	 * 
+	 * @return the client side filter, or null if the filter can only be applied on the server
+	 */
+	default JsonObject toClientFilter() {
+		return null;
+	}
+	
 }
@@ -42,6 +42,13 @@ public class GridSorterFilterComponentRenderer <SOURCE>
 	private final EnhancedColumn<?> column;
     private final Component component;
 
+    // header HTML of the last rendering and what it was built from
+    private String baseTemplateInnerHtml;
+    private String templateInnerHtml;
+    private String templateAppId;
+    private int templateNodeId;
+    private int templateColumnState;
+
     /**
      * Creates a new renderer for a specific column, using the defined
      * component.
@@ -76,43 +83,66 @@ public class GridSorterFilterComponentRenderer <SOURCE>
     private void setupTemplateWhenAttached(UI ui, Element owner,
             GridSorterFilterComponentRendering rendering,
             DataKeyMapper<SOURCE> keyMapper) {
-        String appId = ui.getInternals().getAppId();
         Element templateElement = rendering.getTemplateElement();
         owner.appendChild(templateElement);
 
         Element container = new Element("div");
         owner.appendVirtualChild(container);
         rendering.setContainer(container);
-        String templateInnerHtml;
 
         if (component != null) {
             container.appendChild(component.getElement());
+        }
 
-            templateInnerHtml = String.format(
-                    "<flow-component-renderer appid=\"%s\" nodeid=\"%s\"></flow-component-renderer>",
-                    appId, component.getElement().getNode().getId());
-        } else {
-            templateInnerHtml = "";
+        String innerHtml = getTemplateInnerHtml(ui);
+        if (!innerHtml.equals(templateElement.getProperty("innerHTML"))) {
+            templateElement.setProperty("innerHTML", innerHtml);
+        }
+    }
+
+    /**
+     * Gets the header HTML, built once and rebuilt only when the UI, the
+     * component or the sorting and filtering state of the column changed.
+     */
+    private String getTemplateInnerHtml(UI ui) {
+        String appId = ui.getInternals().getAppId();
+        int nodeId = component != null ? component.getElement().getNode().getId() : -1;
+        int columnState = (column.hasSortingIndicators() ? 1 : 0)
+                | (column.isSortable() ? 2 : 0)
+                | (column.isFilterable() ? 4 : 0);
+        if (templateInnerHtml == null || !appId.equals(templateAppId)
+                || nodeId != templateNodeId || columnState != templateColumnState) {
+            buildTemplateInnerHtml(appId, nodeId);
+            templateAppId = appId;
+            templateNodeId = nodeId;
+            templateColumnState = columnState;
         }
-        
         /*
          * The renderer must set the base header template back to the column, so 
          * if/when the sortable state is changed by the developer, the column
          * knows how to add or remove the grid sorter.
          */
-        column.setBaseHeaderTemplate(templateInnerHtml);
-        if (column.hasSortingIndicators() && !column.isFilterable()) {
-            templateInnerHtml = column.addGridSorter(templateInnerHtml);
+        column.setBaseHeaderTemplate(baseTemplateInnerHtml);
+        return templateInnerHtml;
+    }
+
+    private void buildTemplateInnerHtml(String appId, int nodeId) {
+        if (component != null) {
+            baseTemplateInnerHtml = "<flow-component-renderer appid=\"" + appId
+                    + "\" nodeid=\"" + nodeId
+                    + "\"></flow-component-renderer>";
+        } else {
+            baseTemplateInnerHtml = "";
         }
 
-        if(column.isFilterable()) {
-        	String gridSorter = column.isSortable() ? column.addGridSorter("")
-        			.replaceFirst(">", "style='display:none' slot='direction'>") : "";
-        	templateInnerHtml = column.addEnhancedGridSorter(templateInnerHtml);
-        	templateInnerHtml = templateInnerHtml.replaceFirst(">", ">" + gridSorter);
+        String html = baseTemplateInnerHtml;
+        if (column.hasSortingIndicators() && !column.isFilterable()) {
+            html = column.addGridSorter(html);
+        }
+        if (column.isFilterable()) {
+            html = column.addEnhancedGridSorter(html);
         }
-        
-        templateElement.setProperty("innerHTML", templateInnerHtml);
+        templateInnerHtml = html;
     }
 
     private class GridSorterFilterComponentRendering extends
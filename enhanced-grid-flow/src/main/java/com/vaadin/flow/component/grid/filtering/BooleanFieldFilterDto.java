@@ -30,6 +30,9 @@ import javax.persistence.metamodel.SingularAttribute;
 
 import org.springframework.data.jpa.domain.Specification;
 
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
 public class BooleanFieldFilterDto<R> implements BackendFilterFieldDto<R, Boolean> {
 
 	private Boolean filterValue;
@@ -82,6 +85,18 @@ public class BooleanFieldFilterDto<R> implements BackendFilterFieldDto<R, Boolea
 		return simplePredicate;
 	}
 
+	@Override
+	public JsonObject toClientFilter() {
+		JsonObject clientFilter = Json.createObject();
+		clientFilter.put("type", "equals");
+
+		if (filterValue != null) {
+			clientFilter.put("value", filterValue);
+		}
+
+		return clientFilter;
+	}
+
 	@Override
 	public Specification<R> getFilterSpecification() {
 		if (specificationField == null && metaclassFunction == null)
@@ -31,6 +31,10 @@ import javax.persistence.metamodel.SingularAttribute;
 
 import org.springframework.data.jpa.domain.Specification;
 
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
 public class EnumFieldFilterDto<R, E extends Enum>
 		implements BackendFilterFieldDto<R, E> {
 
@@ -84,6 +88,22 @@ public class EnumFieldFilterDto<R, E extends Enum>
 		return simplePredicate;
 	}
 
+	@Override
+	public JsonObject toClientFilter() {
+		JsonObject clientFilter = Json.createObject();
+		clientFilter.put("type", "in");
+
+		if (filterValue != null) {
+			JsonArray values = Json.createArray();
+			for (E value : filterValue) {
+				values.set(values.length(), String.valueOf(value));
+			}
+			clientFilter.put("values", values);
+		}
+
+		return clientFilter;
+	}
+
 	@Override
 	public Specification<R> getFilterSpecification() {
 		if (specificationField == null && metaclassFunction == null)
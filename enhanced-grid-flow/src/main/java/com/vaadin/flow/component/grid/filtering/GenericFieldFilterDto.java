@@ -31,6 +31,9 @@ import javax.persistence.metamodel.SingularAttribute;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.jpa.domain.Specification;
 
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
 public class GenericFieldFilterDto<R, T> implements BackendFilterFieldDto<R, T> {
 
 	private boolean wholeField;
@@ -41,6 +44,8 @@ public class GenericFieldFilterDto<R, T> implements BackendFilterFieldDto<R, T>
 
 	private String filterValue;
 
+	private boolean clientFilterable;
+
 	private SingularAttribute<R, T> specificationField;
 
 	private Function<Root<R>, Expression<T>> metaclassFunction;
@@ -132,6 +137,21 @@ public class GenericFieldFilterDto<R, T> implements BackendFilterFieldDto<R, T>
 		this.specificationField = specificationField;
 	}
 
+	/**
+	 * Returns whether the filter can run on the client side, see {@link #toClientFilter()}.
+	 * False by default: the client compares the {@code toString()} of the field values, 
+	 * so only enable it when {@link #fieldValueToString(Object)} is not overridden.
+	 *
+	 * @return true if the filter can run on the client side
+	 */
+	public boolean isClientFilterable() {
+		return clientFilterable;
+	}
+
+	public void setClientFilterable(boolean clientFilterable) {
+		this.clientFilterable = clientFilterable;
+	}
+
 	public GenericFieldFilterDto<R, T> wholeField(boolean wholeField) {
 		setWholeField(wholeField);
 		return this;
@@ -157,6 +177,11 @@ public class GenericFieldFilterDto<R, T> implements BackendFilterFieldDto<R, T>
 		return this;
 	}
 
+	public GenericFieldFilterDto<R, T> clientFilterable(boolean clientFilterable) {
+		setClientFilterable(clientFilterable);
+		return this;
+	}
+
 	@Override
 	public Predicate<T> getFilterPredicate() {
 		Predicate<T> simplePredicate;
@@ -169,12 +194,25 @@ public class GenericFieldFilterDto<R, T> implements BackendFilterFieldDto<R, T>
 		} else if (caseSensitive) {
 			simplePredicate = s -> fieldValueToString(s).contains(filterValue);
 		} else {
-			simplePredicate = s -> fieldValueToString(s).toUpperCase().contains(filterValue.toUpperCase());
+			simplePredicate = s -> containsIgnoreCase(fieldValueToString(s), filterValue);
 		}
 
 		return invertResult ? simplePredicate.negate() : simplePredicate;
 	}
 
+	/**
+	 * Case insensitive contains, comparing in place instead of upper casing
+	 * copies of both strings for each tested row.
+	 */
+	static boolean containsIgnoreCase(String text, String searchValue) {
+		int last = text.length() - searchValue.length();
+		for (int i = 0; i <= last; i++) {
+			if (text.regionMatches(true, i, searchValue, 0, searchValue.length()))
+				return true;
+		}
+		return false;
+	}
+
 	/**
 	 * transforms the fields value that is to be filtered into a string
 	 *
@@ -185,6 +223,20 @@ public class GenericFieldFilterDto<R, T> implements BackendFilterFieldDto<R, T>
 		return value.toString();
 	}
 
+	@Override
+	public JsonObject toClientFilter() {
+		if (!isClientFilterable())
+			return null;
+
+		JsonObject clientFilter = Json.createObject();
+		clientFilter.put("type", "text");
+		clientFilter.put("value", filterValue == null ? "" : filterValue);
+		clientFilter.put("wholeField", wholeField);
+		clientFilter.put("caseSensitive", caseSensitive);
+		clientFilter.put("invert", invertResult);
+		return clientFilter;
+	}
+
 	@Override
 	public Specification<R> getFilterSpecification() {
 		if (specificationField == null && metaclassFunction == null)
@@ -51,7 +51,7 @@ public class GenericFilterField<R, T> extends AbstractCompositeField<Div, Generi
 	private Binder<GenericFieldFilterDto> binder;
 
 	public GenericFilterField() {
-		super(new GenericFieldFilterDto<>());
+		super(new GenericFieldFilterDto<R, T>().clientFilterable(true));
 		init();
 	}
 
@@ -61,7 +61,7 @@ public class GenericFilterField<R, T> extends AbstractCompositeField<Div, Generi
 	}
 
 	public GenericFilterField(SingularAttribute<R, T> specificationField) {
-		super(new GenericFieldFilterDto<>(specificationField));
+		super(new GenericFieldFilterDto<>(specificationField).clientFilterable(true));
 		init();
 	}
 
@@ -71,7 +71,7 @@ public class GenericFilterField<R, T> extends AbstractCompositeField<Div, Generi
 	}
 
 	public GenericFilterField(Function<Root<R>, Expression<T>> metaclassFunction) {
-		super(new GenericFieldFilterDto<>(metaclassFunction));
+		super(new GenericFieldFilterDto<>(metaclassFunction).clientFilterable(true));
 		init();
 	}
 
@@ -118,7 +118,7 @@ public class GenericFilterField<R, T> extends AbstractCompositeField<Div, Generi
 
 	@Override
 	public GenericFieldFilterDto<R, T> getEmptyValue() {
-		return new GenericFieldFilterDto<>(false, false, false, StringUtils.EMPTY);
+		return new GenericFieldFilterDto<R, T>(false, false, false, StringUtils.EMPTY).clientFilterable(true);
 	}
 
 	@Override
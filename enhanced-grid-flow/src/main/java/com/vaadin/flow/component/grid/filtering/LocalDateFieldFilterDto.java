@@ -33,6 +33,9 @@ import javax.persistence.metamodel.SingularAttribute;
 
 import org.springframework.data.jpa.domain.Specification;
 
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
 public class LocalDateFieldFilterDto<R> implements BackendFilterFieldDto<R, LocalDate> {
 
 	private LocalDate filterStart;
@@ -92,6 +95,23 @@ public class LocalDateFieldFilterDto<R> implements BackendFilterFieldDto<R, Loca
 		return simplePredicate;
 	}
 
+	@Override
+	public JsonObject toClientFilter() {
+		JsonObject clientFilter = Json.createObject();
+		clientFilter.put("type", "range");
+
+		// ISO dates are compared as strings on the client
+		if (filterStart != null) {
+			clientFilter.put("start", filterStart.toString());
+		}
+
+		if (filterEnd != null) {
+			clientFilter.put("end", filterEnd.toString());
+		}
+
+		return clientFilter;
+	}
+
 	@Override
 	public Specification<R> getFilterSpecification() {
 		if (specificationField == null && metaclassFunction == null)
@@ -123,7 +123,7 @@ import { GridColumn } from '@vaadin/grid/src/vaadin-grid-column.js';
      *
      * @override
      */
-    _defaultRenderer(root, _column, { item, selected }) {
+    _defaultRenderer(root, _column, { index, item, selected }) {
       let checkbox = root.firstElementChild;
       if (!checkbox) {
         checkbox = document.createElement('vaadin-checkbox');
@@ -133,14 +133,23 @@ import { GridColumn } from '@vaadin/grid/src/vaadin-grid-column.js';
       }
 
       checkbox.__item = item;
+      checkbox.__index = index;
       checkbox.checked = selected;
       checkbox.disabled = item.selectionDisabled;
     }
 
     _onSelectClick(e) {
-        if (!e.model.item.selectionDisabled) {
-            e.currentTarget.checked ? this._grid.$connector.doDeselection([e.model.item], true) : this._grid.$connector.doSelection([e.model.item], true);
-            e.currentTarget.checked = !e.currentTarget.checked;
+        const checkbox = e.currentTarget;
+        const item = checkbox.__item;
+        if (!item.selectionDisabled) {
+            if (e.shiftKey && !checkbox.checked && this._rangeAnchorIndex !== undefined) {
+                // the items between the anchor and the clicked row, both included, are resolved and selected on the server
+                this.$server.selectRange(this._rangeAnchorIndex, checkbox.__index, item.key);
+            } else {
+                checkbox.checked ? this._grid.$connector.doDeselection([item], true) : this._grid.$connector.doSelection([item], true);
+            }
+            checkbox.checked = !checkbox.checked;
+            this._rangeAnchorIndex = checkbox.__index;
         }
     }
 
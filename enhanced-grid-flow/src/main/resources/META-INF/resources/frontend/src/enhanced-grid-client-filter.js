@@ -0,0 +1,231 @@
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Client side filtering and sorting for enhanced grids whose whole data set
+ * is sent to the client in one page.
+ *
+ * The items are loaded once through the grid connector, then the column filters
+ * and the sorters are applied on the loaded items without any server round trip.
+ * The raw column values are read from the `_cf` property of the items, the sort
+ * keys from `_cfs` when they differ from the raw values. The server calls
+ * `dataChanged` whenever it sends new data, so that the items are loaded again.
+ */
+(function () {
+  window.Vaadin = window.Vaadin || {};
+  window.Vaadin.Flow = window.Vaadin.Flow || {};
+
+  const matchers = {
+    text: function (filter, value) {
+      if (!filter.value || !filter.value.trim()) {
+        return true;
+      }
+      let result = false;
+      if (value !== null && value !== undefined) {
+        const text = String(value);
+        if (filter.wholeField) {
+          result = filter.caseSensitive ? text === filter.value : text.toUpperCase() === filter.value.toUpperCase();
+        } else {
+          result = filter.caseSensitive ? text.indexOf(filter.value) >= 0 : text.toUpperCase().indexOf(filter.value.toUpperCase()) >= 0;
+        }
+      }
+      return filter.invert ? !result : result;
+    },
+    in: function (filter, value) {
+      return !filter.values || filter.values.indexOf(value) >= 0;
+    },
+    range: function (filter, value) {
+      if (!filter.start && !filter.end) {
+        return true;
+      }
+      if (value === null || value === undefined) {
+        return false;
+      }
+      return (!filter.start || value >= filter.start) && (!filter.end || value <= filter.end);
+    },
+    equals: function (filter, value) {
+      return !('value' in filter) || value === filter.value;
+    }
+  };
+
+  function matches(item, filters) {
+    const values = item._cf || {};
+    for (let i = 0; i < filters.length; i++) {
+      const matcher = matchers[filters[i].filter.type];
+      if (matcher && !matcher(filters[i].filter, values[filters[i].path])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  function sortValue(item, path) {
+    if (item._cfs && item._cfs.hasOwnProperty(path)) {
+      return item._cfs[path];
+    }
+    return item._cf ? item._cf[path] : undefined;
+  }
+
+  function compareValues(a, b) {
+    if (a === b) {
+      return 0;
+    }
+    if (a === null || a === undefined) {
+      return -1;
+    }
+    if (b === null || b === undefined) {
+      return 1;
+    }
+    return a < b ? -1 : 1;
+  }
+
+  function filterItems(state) {
+    return state.filters.length ? state.items.filter(item => matches(item, state.filters)) : state.items.slice();
+  }
+
+  function getView(state, sortOrders) {
+    const orders = (sortOrders || []).filter(order => order.direction);
+    const viewKey = JSON.stringify(orders);
+    if (!state.view || state.viewKey !== viewKey) {
+      const view = filterItems(state);
+      if (orders.length) {
+        view.sort(function (a, b) {
+          for (let i = 0; i < orders.length; i++) {
+            const result = compareValues(sortValue(a, orders[i].path), sortValue(b, orders[i].path));
+            if (result) {
+              return orders[i].direction === 'desc' ? -result : result;
+            }
+          }
+          return 0;
+        });
+      }
+      state.view = view;
+      state.viewKey = viewKey;
+    }
+    return state.view;
+  }
+
+  function serve(grid, state, params, callback) {
+    const view = getView(state, params.sortOrders);
+    const start = params.page * params.pageSize;
+    callback(view.slice(start, start + params.pageSize), view.length);
+  }
+
+  function updateSize(grid, state) {
+    const size = filterItems(state).length;
+    if (grid.size !== size) {
+      grid.size = size;
+    }
+  }
+
+  function load(grid, state, originalDataProvider) {
+    const generation = state.generation;
+    originalDataProvider({ page: 0, pageSize: grid.pageSize, sortOrders: [], filters: [] }, function (items) {
+      if (generation !== state.generation) {
+        return;
+      }
+      state.items = items;
+      state.view = null;
+      updateSize(grid, state);
+      const pending = state.pending;
+      state.pending = [];
+      pending.forEach(request => serve(grid, state, request[0], request[1]));
+    });
+  }
+
+  /** Drops the loaded items once the server has sent new data, and reloads them. */
+  function reload(grid, state) {
+    state.items = null;
+    state.view = null;
+    state.pending = [];
+    state.generation++;
+    Promise.resolve().then(() => grid.clearCache());
+  }
+
+  window.Vaadin.Flow.enhancedGridClientFilter = {
+    initLazy: function (grid) {
+      if (grid.$enhancedClientFilter) {
+        grid.$enhancedClientFilter.active = true;
+        reload(grid, grid.$enhancedClientFilter);
+        return;
+      }
+      if (!grid.$connector) {
+        // the grid connector is not initialized yet
+        setTimeout(() => this.initLazy(grid));
+        return;
+      }
+
+      const state = { active: true, items: null, view: null, viewKey: null, filters: grid.__pendingClientFilters || [], pending: [], generation: 0 };
+      delete grid.__pendingClientFilters;
+      grid.$enhancedClientFilter = state;
+
+      const originalDataProvider = grid.dataProvider;
+      grid.dataProvider = function (params, callback) {
+        if (!state.active || params.parentItem) {
+          originalDataProvider(params, callback);
+        } else if (state.items) {
+          serve(grid, state, params, callback);
+        } else {
+          state.pending.push([params, callback]);
+          if (state.pending.length === 1) {
+            load(grid, state, originalDataProvider);
+          }
+        }
+      };
+
+    },
+
+    dataChanged: function (grid) {
+      const state = grid.$enhancedClientFilter;
+      if (state && state.active && state.items) {
+        reload(grid, state);
+      }
+    },
+
+    setFilters: function (grid, filters) {
+      const state = grid.$enhancedClientFilter;
+      if (!state) {
+        // applied once the grid connector is initialized
+        grid.__pendingClientFilters = filters;
+        return;
+      }
+      state.filters = filters || [];
+      state.view = null;
+      if (state.items) {
+        updateSize(grid, state);
+      }
+      grid.clearCache();
+    },
+
+    disable: function (grid) {
+      const state = grid.$enhancedClientFilter;
+      if (!state || !state.active) {
+        return;
+      }
+      state.active = false;
+      state.filters = [];
+      state.items = null;
+      state.view = null;
+      state.pending = [];
+      state.generation++;
+      grid.clearCache();
+    }
+  };
+})();
@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Decodes the rows an enhanced grid sends as positional arrays.
+ *
+ * A page holds the property names ("k") and row shapes ("s") added to the
+ * dictionary since the previous page, and the rows ("r"). Each row starts with
+ * the index of its shape, followed by its values in the order of the shape.
+ */
+(function () {
+  window.Vaadin = window.Vaadin || {};
+  window.Vaadin.Flow = window.Vaadin.Flow || {};
+
+  window.Vaadin.Flow.enhancedGridCompactRows = {
+    initLazy: function (grid) {
+      const dictionary = { keys: [], shapes: [] };
+
+      grid.$enhancedConnector = grid.$enhancedConnector || {};
+      grid.$enhancedConnector.setCompact = function (start, page) {
+        if (page.x) {
+          dictionary.keys = [];
+          dictionary.shapes = [];
+        }
+        Array.prototype.push.apply(dictionary.keys, page.k);
+        Array.prototype.push.apply(dictionary.shapes, page.s);
+
+        const items = page.r.map(function (row) {
+          const shape = dictionary.shapes[row[0]];
+          const item = {};
+          for (let i = 0; i < shape.length; i++) {
+            item[dictionary.keys[shape[i]]] = row[i + 1];
+          }
+          return item;
+        });
+        grid.$connector.set(start, items, null);
+      };
+    }
+  };
+})();
@@ -113,6 +113,25 @@ class EnhancedGridSorter extends GridSorter {
 	var handler = this.__copyDirection.bind(this);
 	slot.addEventListener('slotchange', handler);
 	handler();
+
+	// the filtered state is synchronized from the server as an attribute of the header component
+	if (!this.__filteredObserver) {
+		this.__filteredObserver = new MutationObserver(this.__updateFiltered.bind(this));
+	}
+	this.__filteredObserver.observe(this, { subtree: true, childList: true, attributes: true, attributeFilter: ['data-enhanced-grid-filtered'] });
+	this.__updateFiltered();
+ }
+
+ disconnectedCallback () {
+	super.disconnectedCallback ();
+	if (this.__filteredObserver) {
+		this.__filteredObserver.disconnect();
+	}
+ }
+
+ /** @private */
+ __updateFiltered() {
+	this.filtered = !!this.querySelector('[data-enhanced-grid-filtered]');
  }
 
  __copyDirection() {
@@ -0,0 +1,79 @@
+/*-
+ * #%L
+ * Enhanced Grid
+ * %%
+ * Copyright (C) 2020 - 2021 Vaadin Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Debug overlay showing the client communication of the last interaction with
+ * an enhanced grid: the calls received by the server, the JavaScript calls, the
+ * calls enqueued by the data communicator and the JSON bytes sent.
+ *
+ * The overlay is attached to the document body, over the top right corner of
+ * the grid, and removed once the grid is detached.
+ */
+(function () {
+  window.Vaadin = window.Vaadin || {};
+  window.Vaadin.Flow = window.Vaadin.Flow || {};
+
+  const grids = new Set();
+
+  function formatBytes(bytes) {
+    return bytes < 1024 ? bytes + ' B' : (bytes / 1024).toFixed(1) + ' kB';
+  }
+
+  function position(grid, overlay) {
+    const rect = grid.getBoundingClientRect();
+    overlay.style.top = Math.max(0, rect.top) + 'px';
+    overlay.style.left = Math.max(0, rect.right - overlay.offsetWidth) + 'px';
+  }
+
+  function remove(grid) {
+    grid.$enhancedTrafficOverlay.remove();
+    delete grid.$enhancedTrafficOverlay;
+    grids.delete(grid);
+  }
+
+  window.Vaadin.Flow.enhancedGridTrafficOverlay = {
+    show: function (grid, traffic) {
+      // forget the overlays of the grids detached in the meantime
+      grids.forEach(other => !other.isConnected && remove(other));
+
+      let overlay = grid.$enhancedTrafficOverlay;
+      if (!overlay) {
+        overlay = document.createElement('div');
+        overlay.className = 'enhanced-grid-traffic-overlay';
+        overlay.style.cssText = 'position: fixed; z-index: 10000; pointer-events: none; padding: 2px 6px;'
+          + ' font: 11px monospace; color: #fff; background: rgba(0, 0, 0, 0.65); white-space: pre;';
+        overlay.$interactions = 0;
+        document.body.appendChild(overlay);
+        grid.$enhancedTrafficOverlay = overlay;
+        grids.add(grid);
+      }
+      overlay.$interactions++;
+      overlay.textContent = '#' + overlay.$interactions + '  ' + traffic.rpcs + ' rpc  ' + traffic.jsCalls + ' js  '
+        + traffic.enqueuedCalls + ' queued  ' + formatBytes(traffic.jsonBytes);
+      position(grid, overlay);
+    },
+
+    hide: function (grid) {
+      if (grid.$enhancedTrafficOverlay) {
+        remove(grid);
+      }
+    }
+  };
+})();
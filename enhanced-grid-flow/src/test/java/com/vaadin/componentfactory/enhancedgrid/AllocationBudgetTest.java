@@ -0,0 +1,225 @@
+package com.vaadin.componentfactory.enhancedgrid;
+
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.mvysny.kaributesting.v10.MockVaadin;
+import com.github.mvysny.kaributesting.v10.Routes;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.grid.Grid.SelectionMode;
+import com.vaadin.flow.component.grid.filtering.GenericFieldFilterDto;
+import com.vaadin.flow.data.provider.ListDataProvider;
+
+/**
+ * Checks the bytes allocated per operation on the hot paths of the grid
+ * against budgets, so that allocation regressions fail the build.
+ * <p>
+ * The allocated bytes are read from the counter of the current thread, after a
+ * warm up so that class loading and lazily created structures are not
+ * counted. The budgets hold a slack over the allocations the operations need,
+ * so that only regressions of several times fail, not the differences between
+ * JVMs or Vaadin versions. A budget can be overridden with the
+ * {@code allocation.budget.<operation>} system property, in bytes.
+ */
+public class AllocationBudgetTest {
+
+	private static final int ITEMS = 10000;
+
+	private static final int SELECTED = 1000;
+
+	private static final int PAGE_SIZE = 50;
+
+	private static final int ITERATIONS = 100;
+
+	private static final String[] WORDS = { "alpha", "Bravo", "charlie", "Delta", "echo", "Foxtrot", "golf",
+			"Hotel", "india", "Juliett" };
+
+	private static class Item {
+
+		private final int id;
+
+		private final String name;
+
+		private final LocalDate date;
+
+		private final boolean active;
+
+		private Item(int id, String name, LocalDate date, boolean active) {
+			this.id = id;
+			this.name = name;
+			this.date = date;
+			this.active = active;
+		}
+	}
+
+	private com.sun.management.ThreadMXBean threads;
+
+	private List<Item> items;
+
+	@Before
+	public void setUp() {
+		ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue("The allocated bytes of threads are not measured by this JVM",
+				threadMXBean instanceof com.sun.management.ThreadMXBean
+						&& ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled());
+		threads = (com.sun.management.ThreadMXBean) threadMXBean;
+
+		Random random = new Random(42);
+		items = new ArrayList<>(ITEMS);
+		for (int i = 0; i < ITEMS; i++) {
+			items.add(new Item(i, WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+					+ " " + i, LocalDate.of(2000, 1, 1).plusDays(random.nextInt(8000)), random.nextBoolean()));
+		}
+		MockVaadin.setup(new Routes());
+	}
+
+	@After
+	public void tearDown() {
+		MockVaadin.tearDown();
+	}
+
+	/**
+	 * A page of 50 rows of three columns, with a selection predicate and a
+	 * class name generator: the JSON objects of the rows, their keys and the
+	 * response. The budget is 512 KB, about 10 KB per row.
+	 */
+	@Test
+	public void pageRender() {
+		EnhancedGrid<Item> grid = createGrid();
+		UI.getCurrent().add(grid);
+		grid.getDataCommunicator().setRequestedRange(0, PAGE_SIZE);
+		MockVaadin.clientRoundtrip();
+
+		assertBudget("page.render", 512 * 1024, 1, () -> {
+			grid.getDataCommunicator().reset();
+			MockVaadin.clientRoundtrip();
+		});
+	}
+
+	/**
+	 * The filters test the values of a row without copying them, like
+	 * {@code applyFrontendFilter}. The budget of 64 bytes per row leaves room
+	 * for one small temporary object.
+	 */
+	@Test
+	public void filterRow() {
+		assertRowBudget("filter.row.contains",
+				new GenericFieldFilterDto<Item, String>(false, false, false, "DELTA").getFilterPredicate());
+		assertRowBudget("filter.row.containsCaseSensitive",
+				new GenericFieldFilterDto<Item, String>(false, true, false, "Delta").getFilterPredicate());
+		assertRowBudget("filter.row.wholeField",
+				new GenericFieldFilterDto<Item, String>(true, false, false, "delta").getFilterPredicate());
+	}
+
+	/**
+	 * Checking the selection of a row looks up the ids of the selected items,
+	 * which are only collected again when the selection changes. The budget of
+	 * 64 bytes per row leaves room for one small temporary object.
+	 */
+	@Test
+	public void selectionIsSelected() {
+		EnhancedGrid<Item> grid = createSelectionGrid();
+
+		int[] matches = new int[1];
+		assertBudget("selection.isSelected", 64, ITEMS, () -> {
+			for (Item item : items) {
+				if (grid.getSelectionModel().isSelected(item)) {
+					matches[0]++;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Selecting or deselecting an item still copies the selection of 1000
+	 * items for the selection event and to merge the changes, about 50 KB per
+	 * copy with entries of 48 bytes. The budget is 512 KB per selection change.
+	 */
+	@Test
+	public void selectionToggle() {
+		EnhancedGrid<Item> grid = createSelectionGrid();
+		Item toggled = items.stream().filter(item -> !grid.getSelectionModel().isSelected(item)).findFirst()
+				.orElseThrow(() -> new IllegalStateException("No unselected item"));
+
+		assertBudget("selection.toggle", 512 * 1024, 2, () -> {
+			grid.select(toggled);
+			grid.deselect(toggled);
+		});
+	}
+
+	private EnhancedGrid<Item> createGrid() {
+		EnhancedGrid<Item> grid = new EnhancedGrid<>();
+		grid.setDataProvider(new ListDataProvider<>(items));
+		grid.addColumn(item -> item.name).setHeader("Name");
+		grid.addColumn(item -> item.date).setHeader("Date");
+		grid.addColumn(item -> item.active).setHeader("Active");
+		grid.setSelectionPredicate(item -> item.active);
+		grid.setClassNameGenerator(item -> item.id % 3 == 0 ? "highlighted" : null);
+		return grid;
+	}
+
+	/**
+	 * @return a grid in multi selection mode, using the selection model of the
+	 *         add-on, with selected items spread over the whole data set
+	 */
+	private EnhancedGrid<Item> createSelectionGrid() {
+		EnhancedGrid<Item> grid = new EnhancedGrid<>();
+		grid.setItems(items);
+		grid.setSelectionMode(SelectionMode.MULTI);
+		Set<Item> selected = new LinkedHashSet<>();
+		for (int i = 0; i < SELECTED; i++) {
+			selected.add(items.get(i * ITEMS / SELECTED));
+		}
+		grid.asMultiSelect().updateSelection(selected, Collections.emptySet());
+		return grid;
+	}
+
+	private void assertRowBudget(String operation, Predicate<String> predicate) {
+		int[] matches = new int[1];
+		assertBudget(operation, 64, ITEMS, () -> {
+			for (Item item : items) {
+				if (predicate.test(item.name)) {
+					matches[0]++;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Runs the operation for warm up, then checks the bytes allocated per unit
+	 * of work against the budget.
+	 *
+	 * @param units
+	 *            the number of units of work done by one run of the operation,
+	 *            e.g. the rows tested by a filter
+	 */
+	private void assertBudget(String operation, long budget, int units, Runnable runnable) {
+		budget = Long.getLong("allocation.budget." + operation, budget);
+		for (int i = 0; i < ITERATIONS; i++) {
+			runnable.run();
+		}
+		long threadId = Thread.currentThread().getId();
+		long start = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < ITERATIONS; i++) {
+			runnable.run();
+		}
+		long bytes = (threads.getThreadAllocatedBytes(threadId) - start) / ((long) ITERATIONS * units);
+		assertTrue(String.format("%s allocates %,d bytes per operation, over its budget of %,d", operation, bytes,
+				budget), bytes <= budget);
+	}
+}
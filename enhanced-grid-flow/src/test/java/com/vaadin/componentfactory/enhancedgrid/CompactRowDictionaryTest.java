@@ -0,0 +1,132 @@
+package com.vaadin.componentfactory.enhancedgrid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+public class CompactRowDictionaryTest {
+
+	private final CompactRowDictionary dictionary = new CompactRowDictionary();
+
+	/**
+	 * Client side dictionary, decoding the pages like
+	 * enhanced-grid-compact-rows.js.
+	 */
+	private final List<String> clientKeys = new ArrayList<>();
+
+	private final List<JsonArray> clientShapes = new ArrayList<>();
+
+	@Test
+	public void encode_decodedRowsEqualOriginals() {
+		List<JsonValue> rows = Arrays.asList(
+				row("key", "1", "col0", "Ava", "col1", "45"),
+				row("key", "2", "col0", "Noah", "col1", "31", "selected", "true"),
+				row("key", "3", "col0", "Mia", "col1", "27"));
+
+		JsonObject page = dictionary.encode(rows);
+
+		assertEquals(toJson(rows), toJson(decode(page)));
+	}
+
+	@Test
+	public void secondPage_sendsOnlyNewEntries() {
+		decode(dictionary.encode(Arrays.asList(
+				row("key", "1", "col0", "Ava"),
+				row("key", "2", "col0", "Noah"))));
+
+		List<JsonValue> rows = Arrays.asList(
+				row("key", "3", "col0", "Mia"),
+				row("key", "4", "col0", "Leah", "selected", "true"));
+		JsonObject page = dictionary.encode(rows);
+
+		assertEquals("[\"selected\"]", page.getArray("k").toJson());
+		assertEquals("[[0,1,2]]", page.getArray("s").toJson());
+		assertEquals(toJson(rows), toJson(decode(page)));
+		// 3 keys and 2 shapes
+		assertEquals(5, dictionary.size());
+	}
+
+	@Test
+	public void tooManyShapes_clientDictionaryReset() {
+		for (int i = 0; i < 1024; i++) {
+			JsonObject page = dictionary.encode(Arrays.asList(row("key", "1", "col" + i, "value")));
+			assertFalse(page.hasKey("x"));
+			decode(page);
+		}
+
+		List<JsonValue> rows = Arrays.asList(row("key", "2", "col0", "value"));
+		JsonObject page = dictionary.encode(rows);
+
+		assertTrue(page.getBoolean("x"));
+		assertEquals("[\"key\",\"col0\"]", page.getArray("k").toJson());
+		assertEquals(toJson(rows), toJson(decode(page)));
+		assertEquals(3, dictionary.size());
+	}
+
+	@Test
+	public void reset_entriesSentAgain() {
+		List<JsonValue> rows = Arrays.asList(row("key", "1", "col0", "Ava"));
+		decode(dictionary.encode(rows));
+
+		dictionary.reset();
+		clientKeys.clear();
+		clientShapes.clear();
+		JsonObject page = dictionary.encode(rows);
+
+		assertEquals("[\"key\",\"col0\"]", page.getArray("k").toJson());
+		assertEquals(toJson(rows), toJson(decode(page)));
+	}
+
+	private List<JsonValue> decode(JsonObject page) {
+		if (page.hasKey("x")) {
+			clientKeys.clear();
+			clientShapes.clear();
+		}
+		JsonArray keys = page.getArray("k");
+		for (int i = 0; i < keys.length(); i++) {
+			clientKeys.add(keys.getString(i));
+		}
+		JsonArray shapes = page.getArray("s");
+		for (int i = 0; i < shapes.length(); i++) {
+			clientShapes.add(shapes.getArray(i));
+		}
+
+		List<JsonValue> items = new ArrayList<>();
+		JsonArray rows = page.getArray("r");
+		for (int i = 0; i < rows.length(); i++) {
+			JsonArray row = rows.getArray(i);
+			JsonArray shape = clientShapes.get((int) row.getNumber(0));
+			JsonObject item = Json.createObject();
+			for (int j = 0; j < shape.length(); j++) {
+				item.put(clientKeys.get((int) shape.getNumber(j)), row.get(j + 1));
+			}
+			items.add(item);
+		}
+		return items;
+	}
+
+	private static JsonObject row(String... keysAndValues) {
+		JsonObject row = Json.createObject();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			row.put(keysAndValues[i], keysAndValues[i + 1]);
+		}
+		return row;
+	}
+
+	private static List<String> toJson(List<JsonValue> rows) {
+		List<String> json = new ArrayList<>();
+		rows.forEach(row -> json.add(row.toJson()));
+		return json;
+	}
+}
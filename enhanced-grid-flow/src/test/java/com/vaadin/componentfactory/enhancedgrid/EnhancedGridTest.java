@@ -0,0 +1,103 @@
+package com.vaadin.componentfactory.enhancedgrid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.vaadin.componentfactory.enhancedgrid.metrics.GridMemoryFootprint;
+import com.vaadin.flow.component.grid.Grid.SelectionMode;
+
+public class EnhancedGridTest {
+
+	@Test
+	public void predicateCache_refreshedItemTestedAgain() {
+		List<String> items = Arrays.asList("a", "b", "c");
+		EnhancedGrid<String> grid = new EnhancedGrid<>();
+		grid.setItems(items);
+		AtomicInteger tests = new AtomicInteger();
+		grid.setSelectionPredicate(item -> {
+			tests.incrementAndGet();
+			return !"b".equals(item);
+		});
+		grid.setPredicateCacheSize(10);
+
+		assertTrue(grid.isSelectable("a"));
+		assertFalse(grid.isSelectable("b"));
+		assertTrue(grid.isSelectable("a"));
+		assertFalse(grid.isSelectable("b"));
+		assertEquals(2, tests.get());
+
+		grid.getDataProvider().refreshItem("a");
+		assertTrue(grid.isSelectable("a"));
+		assertFalse(grid.isSelectable("b"));
+		assertEquals(3, tests.get());
+	}
+
+	@Test
+	public void predicateCache_replacedPredicateTested() {
+		EnhancedGrid<String> grid = new EnhancedGrid<>();
+		grid.setItems("a", "b");
+		grid.setPredicateCacheSize(10);
+		assertTrue(grid.isSelectable("a"));
+
+		grid.setSelectionPredicate(item -> false);
+
+		assertFalse(grid.isSelectable("a"));
+	}
+
+	@Test
+	public void predicateCache_newDataProviderTestedAgain() {
+		EnhancedGrid<String> grid = new EnhancedGrid<>();
+		grid.setItems("a", "b");
+		AtomicInteger tests = new AtomicInteger();
+		grid.setSelectionPredicate(item -> {
+			tests.incrementAndGet();
+			return true;
+		});
+		grid.setPredicateCacheSize(10);
+		grid.isSelectable("a");
+
+		grid.setItems("a", "b");
+		grid.isSelectable("a");
+
+		assertEquals(2, tests.get());
+	}
+
+	@Test
+	public void memoryFootprint_growsWithSelection() {
+		EnhancedGrid<Integer> grid = new EnhancedGrid<>();
+		grid.setItems(IntStream.range(0, 1000).boxed().collect(Collectors.toList()));
+		grid.setSelectionMode(SelectionMode.MULTI);
+		GridMemoryFootprint empty = grid.getMemoryFootprint();
+		assertEquals(0, empty.getEntries(GridMemoryFootprint.SELECTION));
+
+		grid.asMultiSelect().updateSelection(range(0, 10), Collections.emptySet());
+		GridMemoryFootprint small = grid.getMemoryFootprint();
+		grid.asMultiSelect().updateSelection(range(10, 500), Collections.emptySet());
+		GridMemoryFootprint large = grid.getMemoryFootprint();
+
+		assertEquals(10, small.getEntries(GridMemoryFootprint.SELECTION));
+		assertEquals(500, large.getEntries(GridMemoryFootprint.SELECTION));
+		assertEquals(50 * small.getEstimatedBytes(GridMemoryFootprint.SELECTION),
+				large.getEstimatedBytes(GridMemoryFootprint.SELECTION));
+		assertTrue(small.getEstimatedBytes() > empty.getEstimatedBytes());
+		assertTrue(large.getEstimatedBytes() > small.getEstimatedBytes());
+
+		grid.deselectAll();
+		assertEquals(0, grid.getMemoryFootprint().getEntries(GridMemoryFootprint.SELECTION));
+	}
+
+	private static Set<Integer> range(int from, int to) {
+		return IntStream.range(from, to).boxed().collect(Collectors.toSet());
+	}
+}
@@ -0,0 +1,99 @@
+package com.vaadin.componentfactory.enhancedgrid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.vaadin.flow.function.SerializablePredicate;
+
+public class PredicateResultCacheTest {
+
+	private final PredicateResultCache<String> cache = new PredicateResultCache<>(3);
+
+	private final AtomicInteger selectableTests = new AtomicInteger();
+
+	private final AtomicInteger editableTests = new AtomicInteger();
+
+	private final SerializablePredicate<String> selectable = item -> {
+		selectableTests.incrementAndGet();
+		return item.startsWith("s");
+	};
+
+	private final SerializablePredicate<String> editable = item -> {
+		editableTests.incrementAndGet();
+		return item.endsWith("e");
+	};
+
+	@Test
+	public void test_resultCachedPerKind() {
+		assertTrue(cache.test(1, "se", selectable, PredicateResultCache.SELECTABLE));
+		assertTrue(cache.test(1, "se", selectable, PredicateResultCache.SELECTABLE));
+		assertTrue(cache.test(1, "se", editable, PredicateResultCache.EDITABLE));
+		assertTrue(cache.test(1, "se", editable, PredicateResultCache.EDITABLE));
+		assertFalse(cache.test(2, "x", selectable, PredicateResultCache.SELECTABLE));
+		assertFalse(cache.test(2, "x", selectable, PredicateResultCache.SELECTABLE));
+
+		assertEquals(2, selectableTests.get());
+		assertEquals(1, editableTests.get());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void invalidateItem_testedAgain() {
+		cache.test(1, "s", selectable, PredicateResultCache.SELECTABLE);
+		cache.test(1, "s", editable, PredicateResultCache.EDITABLE);
+
+		cache.invalidate((Object) 1);
+
+		assertTrue(cache.test(1, "s", selectable, PredicateResultCache.SELECTABLE));
+		assertFalse(cache.test(1, "s", editable, PredicateResultCache.EDITABLE));
+		assertEquals(2, selectableTests.get());
+		assertEquals(2, editableTests.get());
+	}
+
+	@Test
+	public void invalidateKind_otherKindKept() {
+		cache.test(1, "se", selectable, PredicateResultCache.SELECTABLE);
+		cache.test(1, "se", editable, PredicateResultCache.EDITABLE);
+
+		cache.invalidate(PredicateResultCache.SELECTABLE);
+
+		assertTrue(cache.test(1, "se", selectable, PredicateResultCache.SELECTABLE));
+		assertTrue(cache.test(1, "se", editable, PredicateResultCache.EDITABLE));
+		assertEquals(2, selectableTests.get());
+		assertEquals(1, editableTests.get());
+	}
+
+	@Test
+	public void maxSize_leastRecentlyUsedDropped() {
+		cache.test(1, "s1", selectable, PredicateResultCache.SELECTABLE);
+		cache.test(2, "s2", selectable, PredicateResultCache.SELECTABLE);
+		cache.test(3, "s3", selectable, PredicateResultCache.SELECTABLE);
+		// 1 becomes the most recently used
+		cache.test(1, "s1", selectable, PredicateResultCache.SELECTABLE);
+		cache.test(4, "s4", selectable, PredicateResultCache.SELECTABLE);
+
+		assertEquals(3, cache.size());
+		assertEquals(4, selectableTests.get());
+		cache.test(1, "s1", selectable, PredicateResultCache.SELECTABLE);
+		assertEquals(4, selectableTests.get());
+		cache.test(2, "s2", selectable, PredicateResultCache.SELECTABLE);
+		assertEquals(5, selectableTests.get());
+	}
+
+	@Test
+	public void clear_allTestedAgain() {
+		cache.test(1, "s1", selectable, PredicateResultCache.SELECTABLE);
+		cache.test(2, "s2", selectable, PredicateResultCache.SELECTABLE);
+
+		cache.clear();
+
+		assertEquals(0, cache.size());
+		cache.test(1, "s1", selectable, PredicateResultCache.SELECTABLE);
+		assertEquals(3, selectableTests.get());
+	}
+}
@@ -0,0 +1,154 @@
+package com.vaadin.componentfactory.enhancedtreegrid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import com.vaadin.flow.data.provider.hierarchy.HierarchicalQuery;
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+import com.vaadin.flow.data.provider.hierarchy.TreeDataProvider;
+import com.vaadin.flow.function.SerializablePredicate;
+
+public class DescendantWalkerTest {
+
+	/**
+	 * Tree data provider counting its queries.
+	 */
+	@SuppressWarnings("serial")
+	private static class CountingTreeDataProvider extends TreeDataProvider<Integer> {
+
+		private int queries;
+
+		private int largestLimit;
+
+		private CountingTreeDataProvider(TreeData<Integer> treeData) {
+			super(treeData);
+		}
+
+		@Override
+		public Stream<Integer> fetchChildren(HierarchicalQuery<Integer, SerializablePredicate<Integer>> query) {
+			queries++;
+			largestLimit = Math.max(largestLimit, query.getLimit());
+			return super.fetchChildren(query);
+		}
+	}
+
+	@Test
+	public void deepTree_walkedWithoutRecursion() {
+		int depth = 100_000;
+		TreeData<Integer> treeData = new TreeData<>();
+		treeData.addItem(null, 0);
+		for (int i = 1; i < depth; i++) {
+			treeData.addItem(i - 1, i);
+		}
+		List<Integer> visited = new ArrayList<>(depth);
+		List<Integer> parents = new ArrayList<>(depth);
+
+		new DescendantWalker<>(new TreeDataProvider<>(treeData)).walk(null, Integer.MAX_VALUE,
+				new DescendantWalker.Visitor<Integer>() {
+
+					@Override
+					public void visitPage(List<Integer> page) {
+						visited.addAll(page);
+					}
+
+					@Override
+					public void visitParent(Integer item) {
+						parents.add(item);
+					}
+				});
+
+		assertEquals(IntStream.range(0, depth).boxed().collect(Collectors.toList()), visited);
+		assertEquals(depth - 1, parents.size());
+	}
+
+	@Test
+	public void wideTree_fetchedInPages() {
+		TreeData<Integer> treeData = new TreeData<>();
+		treeData.addItem(null, -1);
+		for (int i = 0; i < 1234; i++) {
+			treeData.addItem(-1, i);
+		}
+		CountingTreeDataProvider dataProvider = new CountingTreeDataProvider(treeData);
+		List<Integer> pageSizes = new ArrayList<>();
+		List<Integer> visited = new ArrayList<>();
+
+		new DescendantWalker<>(dataProvider).withPageSize(100).walk(-1, Integer.MAX_VALUE, page -> {
+			pageSizes.add(page.size());
+			visited.addAll(page);
+		});
+
+		assertEquals(IntStream.range(0, 1234).boxed().collect(Collectors.toList()), visited);
+		assertEquals(13, pageSizes.size());
+		assertTrue(pageSizes.stream().allMatch(size -> size <= 100));
+		assertEquals(100, dataProvider.largestLimit);
+		// the children of the leaves are not fetched
+		assertEquals(13, dataProvider.queries);
+	}
+
+	@Test
+	public void childrenFillingLastPage_emptyPageEndsLevel() {
+		TreeData<Integer> treeData = new TreeData<>();
+		for (int i = 0; i < 200; i++) {
+			treeData.addItem(null, i);
+		}
+		CountingTreeDataProvider dataProvider = new CountingTreeDataProvider(treeData);
+		List<Integer> visited = new ArrayList<>();
+
+		new DescendantWalker<>(dataProvider).withPageSize(100).walk(null, Integer.MAX_VALUE, visited::addAll);
+
+		assertEquals(200, visited.size());
+		assertEquals(3, dataProvider.queries);
+	}
+
+	@Test
+	public void depth_limitsWalkedLevels() {
+		TreeData<Integer> treeData = new TreeData<>();
+		treeData.addItems(null, 1, 2);
+		treeData.addItems(1, 11, 12);
+		treeData.addItems(11, 111);
+		treeData.addItems(2, 21);
+		List<Integer> visited = new ArrayList<>();
+		List<Integer> parents = new ArrayList<>();
+
+		new DescendantWalker<>(new TreeDataProvider<>(treeData)).walk(null, 2,
+				new DescendantWalker.Visitor<Integer>() {
+
+					@Override
+					public void visitPage(List<Integer> page) {
+						visited.addAll(page);
+					}
+
+					@Override
+					public void visitParent(Integer item) {
+						parents.add(item);
+					}
+				});
+
+		// depth-first, the children of a parent right after its page
+		assertEquals(Arrays.asList(1, 2, 11, 12, 21), visited);
+		assertEquals(Arrays.asList(1, 11, 2), parents);
+	}
+
+	@Test
+	public void descendInto_skipsOtherParents() {
+		TreeData<Integer> treeData = new TreeData<>();
+		treeData.addItems(null, 1, 2);
+		treeData.addItems(1, 11);
+		treeData.addItems(2, 21);
+		List<Integer> visited = new ArrayList<>();
+
+		new DescendantWalker<>(new TreeDataProvider<>(treeData)).withDescendInto(item -> item == 2)
+				.walk(null, Integer.MAX_VALUE, visited::addAll);
+
+		assertEquals(Arrays.asList(1, 2, 21), visited);
+	}
+}
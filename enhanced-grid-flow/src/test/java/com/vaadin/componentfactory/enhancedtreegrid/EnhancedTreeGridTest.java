@@ -0,0 +1,51 @@
+package com.vaadin.componentfactory.enhancedtreegrid;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.vaadin.flow.internal.Range;
+
+public class EnhancedTreeGridTest {
+
+	@Test
+	public void mergeRanges_touchingRangesOutOfOrder_merged() {
+		List<Range> merged = EnhancedTreeGrid.mergeRanges(ranges(
+				Range.withLength(50, 50), Range.withLength(0, 50), Range.withLength(100, 10)));
+
+		assertEquals(1, merged.size());
+		assertRange(0, 110, merged.get(0));
+	}
+
+	@Test
+	public void mergeRanges_overlappingRanges_merged() {
+		List<Range> merged = EnhancedTreeGrid.mergeRanges(ranges(
+				Range.withLength(20, 30), Range.withLength(0, 25), Range.withLength(30, 5)));
+
+		assertEquals(1, merged.size());
+		assertRange(0, 50, merged.get(0));
+	}
+
+	@Test
+	public void mergeRanges_disjointRanges_keptSortedByStart() {
+		List<Range> merged = EnhancedTreeGrid.mergeRanges(ranges(
+				Range.withLength(200, 50), Range.withLength(0, 50), Range.withLength(40, 20)));
+
+		assertEquals(2, merged.size());
+		assertRange(0, 60, merged.get(0));
+		assertRange(200, 250, merged.get(1));
+	}
+
+	private static List<Range> ranges(Range... ranges) {
+		return new ArrayList<>(Arrays.asList(ranges));
+	}
+
+	private static void assertRange(int start, int end, Range range) {
+		assertEquals(start, range.getStart());
+		assertEquals(end, range.getEnd());
+	}
+}
@@ -0,0 +1,109 @@
+package com.vaadin.componentfactory.enhancedtreegrid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+
+public class FlatTreeDataProviderTest {
+
+	private FlatTreeDataProvider<String> dataProvider;
+
+	@Before
+	public void setUp() {
+		TreeData<String> treeData = new TreeData<>();
+		treeData.addItems(null, "A", "B", "C");
+		treeData.addItems("A", "A1", "A2");
+		treeData.addItems("A1", "A11");
+		treeData.addItems("B", "B1", "B2", "B3");
+		dataProvider = new FlatTreeDataProvider<>(treeData);
+	}
+
+	@Test
+	public void expand_rowsBelowMoveDown() {
+		assertEquals(1, dataProvider.indexOf("B"));
+
+		dataProvider.expand("A");
+
+		assertEquals(3, dataProvider.indexOf("B"));
+		assertEquals(4, dataProvider.indexOf("C"));
+		assertRows("A", "A1", "A2", "B", "C");
+	}
+
+	@Test
+	public void collapse_rowsBelowMoveUp() {
+		dataProvider.expand("A");
+		assertEquals(4, dataProvider.indexOf("C"));
+
+		dataProvider.collapse("A");
+
+		assertEquals(-1, dataProvider.indexOf("A1"));
+		assertEquals(2, dataProvider.indexOf("C"));
+		assertRows("A", "B", "C");
+	}
+
+	@Test
+	public void expandCollapseExpand_indexesMatchRows() {
+		dataProvider.expand("A");
+		assertRows("A", "A1", "A2", "B", "C");
+
+		dataProvider.collapse("A");
+		assertRows("A", "B", "C");
+
+		dataProvider.expand("B");
+		assertRows("A", "B", "B1", "B2", "B3", "C");
+
+		dataProvider.expand("A");
+		assertRows("A", "A1", "A2", "B", "B1", "B2", "B3", "C");
+	}
+
+	@Test
+	public void expandBelowIndexedRows_laterRowsReindexed() {
+		dataProvider.expand("B");
+		// indexes all the rows
+		assertEquals(5, dataProvider.indexOf("C"));
+
+		dataProvider.expand("A");
+		dataProvider.expand("A1");
+
+		assertEquals(8, dataProvider.indexOf("C"));
+		assertEquals(4, dataProvider.indexOf("B"));
+		assertRows("A", "A1", "A11", "A2", "B", "B1", "B2", "B3", "C");
+	}
+
+	@Test
+	public void expandCollapsedParent_keepsNestedState() {
+		dataProvider.expand("A1");
+		assertEquals(-1, dataProvider.indexOf("A11"));
+
+		assertTrue(dataProvider.expand("A"));
+		assertFalse(dataProvider.expand("A"));
+
+		assertRows("A", "A1", "A11", "A2", "B", "C");
+	}
+
+	/**
+	 * Checks the index of each row, starting from the last one so that the
+	 * lookups do not only follow the order in which rows are indexed.
+	 */
+	private void assertRows(String... expected) {
+		List<String> rows = dataProvider.fetch(new Query<>()).collect(Collectors.toList());
+		assertEquals(Arrays.asList(expected), rows);
+		assertEquals(expected.length, dataProvider.size(new Query<>()));
+		for (int i = expected.length - 1; i >= 0; i--) {
+			assertEquals(expected[i], i, dataProvider.indexOf(expected[i]));
+		}
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], i, dataProvider.indexOf(expected[i]));
+		}
+	}
+}
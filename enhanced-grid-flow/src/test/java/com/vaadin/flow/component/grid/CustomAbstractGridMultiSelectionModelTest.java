@@ -0,0 +1,43 @@
+package com.vaadin.flow.component.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.vaadin.flow.internal.Range;
+
+public class CustomAbstractGridMultiSelectionModelTest {
+
+	@Test
+	public void clampRange_anchorBeforeTarget() {
+		assertRange(2, 6, CustomAbstractGridMultiSelectionModel.clampRange(2, 5, 10));
+	}
+
+	@Test
+	public void clampRange_targetBeforeAnchor() {
+		assertRange(2, 6, CustomAbstractGridMultiSelectionModel.clampRange(5, 2, 10));
+	}
+
+	@Test
+	public void clampRange_sameRow() {
+		assertRange(3, 4, CustomAbstractGridMultiSelectionModel.clampRange(3, 3, 10));
+	}
+
+	@Test
+	public void clampRange_indexesOutOfRows_clampedToRows() {
+		assertRange(0, 10, CustomAbstractGridMultiSelectionModel.clampRange(-5, 42, 10));
+		assertRange(9, 10, CustomAbstractGridMultiSelectionModel.clampRange(12, 15, 10));
+		assertRange(0, 1, CustomAbstractGridMultiSelectionModel.clampRange(-3, -1, 10));
+	}
+
+	@Test
+	public void clampRange_noRows_empty() {
+		assertTrue(CustomAbstractGridMultiSelectionModel.clampRange(0, 5, 0).isEmpty());
+	}
+
+	private static void assertRange(int start, int end, Range range) {
+		assertEquals(start, range.getStart());
+		assertEquals(end, range.getEnd());
+	}
+}